@@ -0,0 +1,142 @@
+package com.project.back_end.config;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// Booking-style JDBC requests while MongoDB is slow and flooded with
+// prescription traffic. Requests run on either a 200-thread pool (Tomcat's
+// default) or one virtual thread each, with or without the per-backend
+// bulkheads. The score is the JDBC requests' throughput and latency
+// distribution; a rejected request counts as completed.
+//
+// The build targets Java 17, so a default run measures platform threads
+// only. The platform/virtual comparison needs a Java 21+ JVM:
+//   -Djmh.args="RequestExecutionBenchmark -p threads=platform,virtual"
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 5)
+@Threads(8)
+@Fork(1)
+public class RequestExecutionBenchmark {
+
+    private static final int TOMCAT_THREADS = 200;
+    private static final int HIKARI_POOL = 10;
+    private static final int MONGO_POOL = 100;
+    private static final long JDBC_MILLIS = 2;
+    private static final long MONGO_MILLIS = 50;
+    private static final int MONGO_IN_FLIGHT = 400;
+
+    @Param({"platform"})
+    public String threads;
+
+    @Param({"false", "true"})
+    public boolean bulkheads;
+
+    private ExecutorService executor;
+    private final Semaphore hikari = new Semaphore(HIKARI_POOL, true);
+    private final Semaphore mongoPool = new Semaphore(MONGO_POOL, true);
+    private Bulkhead jdbcBulkhead;
+    private Bulkhead mongoBulkhead;
+    private Thread flood;
+    private volatile boolean flooding;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        executor = "virtual".equals(threads) ? virtualThreadExecutor() : Executors.newFixedThreadPool(TOMCAT_THREADS);
+        // Permits and timeouts as the concurrency.properties defaults set them:
+        // each bulkhead sized to its backend's connection pool
+        jdbcBulkhead = new Bulkhead("jdbc", HIKARI_POOL, 1000);
+        mongoBulkhead = new Bulkhead("mongo", MONGO_POOL, 0);
+    }
+
+    @Setup(Level.Iteration)
+    public void startFlood() {
+        flooding = true;
+        Semaphore inFlight = new Semaphore(MONGO_IN_FLIGHT);
+        flood = new Thread(() -> {
+            while (flooding) {
+                try {
+                    if (!inFlight.tryAcquire(10, TimeUnit.MILLISECONDS)) {
+                        continue;
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                }
+                executor.execute(() -> {
+                    try {
+                        handle(mongoBulkhead, mongoPool, MONGO_MILLIS);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }, "mongo-flood");
+        flood.start();
+    }
+
+    @TearDown(Level.Iteration)
+    public void stopFlood() throws InterruptedException {
+        flooding = false;
+        flood.join();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public boolean jdbcRequest() throws Exception {
+        return executor.submit(() -> handle(jdbcBulkhead, hikari, JDBC_MILLIS)).get();
+    }
+
+    // What a request does between the bulkhead interceptor and the response
+    private boolean handle(Bulkhead bulkhead, Semaphore connectionPool, long millis) {
+        if (bulkheads && !bulkhead.tryAcquire()) {
+            return false;
+        }
+        try {
+            connectionPool.acquire();
+            try {
+                Thread.sleep(millis);
+            } finally {
+                connectionPool.release();
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            if (bulkheads) {
+                bulkhead.release();
+            }
+        }
+    }
+
+    private static ExecutorService virtualThreadExecutor() throws Exception {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("threads=virtual needs Java 21 or later", e);
+        }
+    }
+}
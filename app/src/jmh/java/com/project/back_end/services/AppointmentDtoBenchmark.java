@@ -0,0 +1,75 @@
+package com.project.back_end.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.back_end.DTO.AppointmentDTO;
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Building AppointmentDTOs (from columns and from entities) and serializing a
+// 100-row listing the way the patient endpoints return it.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AppointmentDtoBenchmark {
+
+    private static final int ROWS = 100;
+
+    private ObjectMapper objectMapper;
+    private Appointment appointment;
+    private LocalDateTime time;
+    private List<AppointmentDTO> listing;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper().findAndRegisterModules();
+        time = LocalDateTime.now().plusDays(1).withHour(9).withMinute(0).withSecond(0).withNano(0);
+        Doctor doctor = Stubs.doctors(1, 1).get(0);
+        Patient patient = new Patient("Jane Roe", "jane@example.com", "secret", "5551234567", "1 Main St");
+        appointment = new Appointment(patient, doctor, time, "checkup");
+        listing = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            listing.add(fromColumns(i));
+        }
+    }
+
+    @Benchmark
+    public AppointmentDTO fromColumns() {
+        return fromColumns(1);
+    }
+
+    @Benchmark
+    public AppointmentDTO fromEntity() {
+        return new AppointmentDTO(appointment);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public byte[] serializeListing() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(listing);
+    }
+
+    private AppointmentDTO fromColumns(long id) {
+        return new AppointmentDTO(id, 7L, "Dr. Smith", 11L, "Jane Roe", "jane@example.com", "5551234567",
+                "1 Main St", time.plusHours(id % 8), (int) (id & 1));
+    }
+}
@@ -0,0 +1,69 @@
+package com.project.back_end.services;
+
+import com.project.back_end.config.Bulkhead;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.DoctorRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Slot filtering for getDoctorAvailability once the doctor's slots and the
+// day's bookings are indexed: 12 configured slots, every third one booked.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AvailabilityBenchmark {
+
+    private static final int DOCTORS = 100;
+
+    private DoctorService doctorService;
+    private LocalDateTime day;
+    private long next;
+
+    @Setup
+    public void setUp() {
+        day = LocalDate.now().plusDays(1).atStartOfDay();
+        List<LocalDateTime> booked = new ArrayList<>();
+        for (int i = 0; i < Stubs.SLOTS.length; i += 3) {
+            booked.add(day.plusMinutes(SlotTimes.startMinute(Stubs.SLOTS[i])));
+        }
+        DoctorRepository doctorRepo = Stubs.repository(DoctorRepository.class, Map.of("findWithAvailableTimesById", args -> {
+            Doctor doctor = new Doctor("Dr. Bench", "Cardiologist", "bench@example.com", "secret", "5550000000",
+                    new ArrayList<>(List.of(Stubs.SLOTS)));
+            doctor.setId((Long) args[0]);
+            return doctor;
+        }));
+        AppointmentRepository appointmentRepo = Stubs.repository(AppointmentRepository.class,
+                Map.of("findAppointmentDatesByDoctorIdBetween", args -> booked));
+        AvailabilityIndex index = new AvailabilityIndex(doctorRepo, appointmentRepo,
+                new Bulkhead("jdbc", Integer.MAX_VALUE, 0), 5_000, 10_000, 1_000);
+        doctorService = new DoctorService(doctorRepo, appointmentRepo, null, index, null, null, null, null, null,
+                null);
+        for (long id = 1; id <= DOCTORS; id++) {
+            doctorService.getDoctorAvailability(id, day);
+        }
+    }
+
+    @Benchmark
+    public List<String> getDoctorAvailability() {
+        return doctorService.getDoctorAvailability(next++ % DOCTORS + 1, day);
+    }
+}
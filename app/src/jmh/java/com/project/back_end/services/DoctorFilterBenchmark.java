@@ -0,0 +1,71 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.Doctor;
+import com.project.back_end.repo.DoctorRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// DoctorService.filterDoctors over synthetic directories. Time filtering (the
+// former matchesTime) is answered by the directory index's slot postings.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DoctorFilterBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int doctors;
+
+    private DoctorService doctorService;
+
+    @Setup
+    public void setUp() {
+        List<Doctor> all = Stubs.doctors(doctors, 7);
+        DoctorRepository doctorRepo = Stubs.repository(DoctorRepository.class,
+                Map.of("findAllWithAvailableTimes", args -> all));
+        doctorService = new DoctorService(doctorRepo, null, null, null,
+                new DoctorDirectoryIndex(doctorRepo, Long.MAX_VALUE), null, null, null, null, null);
+        // Load the index outside the measurement
+        doctorService.filterDoctors(null, null, null);
+    }
+
+    @Benchmark
+    public List<Doctor> byName() {
+        return doctorService.filterDoctors("garcia", "null", "null");
+    }
+
+    @Benchmark
+    public List<Doctor> bySpeciality() {
+        return doctorService.filterDoctors("null", "null", "Cardiologist");
+    }
+
+    @Benchmark
+    public List<Doctor> byTimeOfDay() {
+        return doctorService.filterDoctors("null", "evening", "null");
+    }
+
+    @Benchmark
+    public List<Doctor> byExactSlot() {
+        return doctorService.filterDoctors("null", "09:00 - 10:00", "null");
+    }
+
+    @Benchmark
+    public List<Doctor> allFilters() {
+        return doctorService.filterDoctors("smith", "morning", "Neurologist");
+    }
+}
@@ -0,0 +1,86 @@
+package com.project.back_end.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+// Login throughput against BCrypt cost. Sixteen callers stand in for request
+// threads: "pooled" goes through the bounded verification pool, so extra
+// logins come back as busy instead of queueing; "caller" hashes on the
+// calling thread, the unbounded alternative. The busy counter shows how
+// much of the offered load the pool turned away at each cost.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class LoginBenchmark {
+
+    private static final String PASSWORD = "correct horse battery staple";
+
+    @Param({"4", "8", "10", "12"})
+    public int strength;
+
+    @Param({"64"})
+    public int queue;
+
+    private CredentialVerifier verifier;
+    private BCryptPasswordEncoder encoder;
+    private String stored;
+
+    @Setup
+    public void setUp() {
+        verifier = new CredentialVerifier(new SimpleMeterRegistry(), strength, 0, queue, 2000);
+        encoder = new BCryptPasswordEncoder(strength);
+        stored = encoder.encode(PASSWORD);
+    }
+
+    @TearDown
+    public void tearDown() {
+        verifier.shutdown();
+    }
+
+    @Benchmark
+    public CredentialVerifier.Result pooled(Outcomes outcomes) {
+        CredentialVerifier.Result result = verifier.verify(PASSWORD, stored, hash -> {
+        });
+        if (result == CredentialVerifier.Result.BUSY) {
+            outcomes.busy++;
+        }
+        return result;
+    }
+
+    @Benchmark
+    public boolean caller() {
+        return encoder.matches(PASSWORD, stored);
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Outcomes {
+        public long busy;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            busy = 0;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.Doctor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+
+// Fixtures shared by the benchmarks: in-memory stand-ins for the Spring Data
+// repositories and synthetic doctors.
+final class Stubs {
+
+    static final String[] SLOTS = {"08:00 - 09:00", "09:00 - 10:00", "10:00 - 11:00", "11:00 - 12:00",
+        "12:00 - 13:00", "13:00 - 14:00", "14:00 - 15:00", "15:00 - 16:00", "16:00 - 17:00", "17:00 - 18:00",
+        "18:00 - 19:00", "19:00 - 20:00"};
+
+    private static final String[] SPECIALITIES = {"Cardiologist", "Dermatologist", "Neurologist", "Pediatrician",
+        "Orthopedic", "Gynecologist", "Psychiatrist", "Dentist", "Ophthalmologist", "ENT"};
+
+    private static final String[] NAMES = {"Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller",
+        "Davis", "Rodriguez", "Martinez", "Hernandez", "Lopez", "Wilson", "Anderson", "Thomas", "Taylor"};
+
+    private Stubs() {
+    }
+
+    // A repository proxy answering the named methods; any other call fails so a
+    // benchmark cannot silently measure an unexpected path.
+    @SuppressWarnings("unchecked")
+    static <T> T repository(Class<T> type, Map<String, Function<Object[], Object>> answers) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "toString":
+                    return type.getSimpleName() + " stub";
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    Function<Object[], Object> answer = answers.get(method.getName());
+                    if (answer == null) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    return answer.apply(args);
+            }
+        });
+    }
+
+    // Revocations backed by empty tables
+    static PrincipalRevocations noRevocations() {
+        return new PrincipalRevocations(new JdbcTemplate() {
+            @Override
+            public void query(String sql, RowCallbackHandler rch) {
+            }
+        });
+    }
+
+    static List<Doctor> doctors(int count, long seed) {
+        Random random = new Random(seed);
+        List<Doctor> doctors = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            List<String> slots = new ArrayList<>();
+            for (String slot : SLOTS) {
+                if (random.nextInt(3) != 0) {
+                    slots.add(slot);
+                }
+            }
+            String name = "Dr. " + NAMES[random.nextInt(NAMES.length)] + " " + NAMES[random.nextInt(NAMES.length)]
+                    + " " + i;
+            Doctor doctor = new Doctor(name, SPECIALITIES[random.nextInt(SPECIALITIES.length)],
+                    "doctor" + i + "@example.com", "secret", "5550000000", slots);
+            doctor.setId(i + 1L);
+            doctors.add(doctor);
+        }
+        return doctors;
+    }
+}
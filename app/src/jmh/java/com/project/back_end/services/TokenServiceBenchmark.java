@@ -0,0 +1,73 @@
+package com.project.back_end.services;
+
+import com.project.back_end.config.Bulkhead;
+import com.project.back_end.repo.AdminRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PatientRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Token issue and validation. With cacheEntries=1 every validation parses and
+// verifies the JWT; with the default size repeat validations hit the cache.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenServiceBenchmark {
+
+    private static final int TOKENS = 1024;
+
+    @Param({"1", "10000"})
+    public int cacheEntries;
+
+    private TokenService tokenService;
+    private String[] tokens;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        // Only tokens carrying role/id claims are validated, so the repositories
+        // are reached only for the existence check made once per cache entry.
+        tokenService = new TokenService(Stubs.repository(AdminRepository.class, Map.of()),
+                Stubs.repository(DoctorRepository.class, Map.of()),
+                Stubs.repository(PatientRepository.class, Map.of("existsById", args -> true)), Stubs.noRevocations(),
+                new SimpleMeterRegistry(), new Bulkhead("jdbc", Integer.MAX_VALUE, 0));
+        ReflectionTestUtils.setField(tokenService, "jwtSecret",
+                "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970");
+        ReflectionTestUtils.setField(tokenService, "cacheMaxEntries", cacheEntries);
+        ReflectionTestUtils.setField(tokenService, "cacheTtlSeconds", 600L);
+        tokenService.init();
+
+        tokens = new String[TOKENS];
+        for (int i = 0; i < TOKENS; i++) {
+            tokens[i] = tokenService.generateToken("patient" + i + "@example.com", "patient", i + 1);
+        }
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return tokenService.generateToken("patient@example.com", "patient", 42);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        String token = tokens[next++ & (TOKENS - 1)];
+        return tokenService.validateToken(token, "patient");
+    }
+}
@@ -0,0 +1,93 @@
+package com.project.back_end.load;
+
+import com.project.back_end.models.Admin;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.repo.AdminRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PatientRepository;
+import com.project.back_end.services.DashboardCounters;
+import org.springframework.context.ApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+// Seed data: doctors with a working day of hourly slots, patients and one
+// admin, all with known credentials. Seeded with a fixed random seed so runs
+// are comparable.
+final class Fixture {
+
+    static final String PASSWORD = "secret1";
+    static final String[] SPECIALITIES = {"Cardiologist", "Dermatologist", "Neurologist", "Pediatrician",
+            "Orthopedic", "Gynecologist", "Psychiatrist", "Dentist", "Ophthalmologist", "ENT"};
+    static final String[] FIRST_NAMES = {"Alice", "Bruno", "Chen", "Diana", "Emeka", "Fatima", "George", "Hana",
+            "Ivan", "Julia", "Kofi", "Laura", "Mateo", "Nadia", "Omar", "Priya"};
+    static final String[] LAST_NAMES = {"Smith", "Garcia", "Kim", "Okafor", "Rossi", "Novak", "Haddad", "Silva",
+            "Tanaka", "Muller", "Jensen", "Kowalski"};
+    static final String[] SLOTS = {"09:00 - 10:00", "10:00 - 11:00", "11:00 - 12:00", "12:00 - 13:00",
+            "13:00 - 14:00", "14:00 - 15:00", "15:00 - 16:00", "16:00 - 17:00", "17:00 - 18:00"};
+    static final String[] TIMES = {"morning", "afternoon", "evening", "null"};
+
+    final List<Long> doctorIds = new ArrayList<>();
+    final List<String> doctorEmails = new ArrayList<>();
+    final List<Long> patientIds = new ArrayList<>();
+    final List<String> patientEmails = new ArrayList<>();
+    final String adminUsername = "loadadmin";
+
+    private Fixture() {
+    }
+
+    static Fixture seed(ApplicationContext context, int doctors, int patients) {
+        Fixture fixture = new Fixture();
+        Random random = new Random(42);
+
+        List<Doctor> doctorRows = new ArrayList<>(doctors);
+        for (int i = 0; i < doctors; i++) {
+            List<String> slots = new ArrayList<>();
+            for (String slot : SLOTS) {
+                if (random.nextInt(4) != 0) {
+                    slots.add(slot);
+                }
+            }
+            doctorRows.add(new Doctor(name(random), SPECIALITIES[random.nextInt(SPECIALITIES.length)],
+                    "doctor" + i + "@load.test", PASSWORD, "5550000000", slots));
+        }
+        for (Doctor doctor : context.getBean(DoctorRepository.class).saveAll(doctorRows)) {
+            fixture.doctorIds.add(doctor.getId());
+            fixture.doctorEmails.add(doctor.getEmail());
+        }
+
+        List<Patient> patientRows = new ArrayList<>(patients);
+        for (int i = 0; i < patients; i++) {
+            patientRows.add(new Patient(name(random), "patient" + i + "@load.test", PASSWORD, "5551111111",
+                    "1 Load Street"));
+        }
+        for (Patient patient : context.getBean(PatientRepository.class).saveAll(patientRows)) {
+            fixture.patientIds.add(patient.getId());
+            fixture.patientEmails.add(patient.getEmail());
+        }
+
+        context.getBean(AdminRepository.class).save(new Admin(fixture.adminUsername, PASSWORD));
+        // Seeded behind the services' backs
+        context.getBean(DashboardCounters.class).reconcile();
+        return fixture;
+    }
+
+    Map<String, String> doctorLogin(int user) {
+        return Map.of("email", doctorEmails.get(user % doctorEmails.size()), "password", PASSWORD);
+    }
+
+    Map<String, String> patientLogin(int user) {
+        return Map.of("email", patientEmails.get(user % patientEmails.size()), "password", PASSWORD);
+    }
+
+    Map<String, String> adminLogin() {
+        return Map.of("username", adminUsername, "password", PASSWORD);
+    }
+
+    private static String name(Random random) {
+        return FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+    }
+}
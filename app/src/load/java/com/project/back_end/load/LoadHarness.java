@@ -0,0 +1,133 @@
+package com.project.back_end.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.project.back_end.BackEndApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+
+import java.io.File;
+import java.net.http.HttpClient;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Boots the application against local stand-ins (H2 in MySQL mode, an
+ * in-memory prescription lookup), seeds doctors, patients and an admin, and
+ * drives it over HTTP with closed-loop virtual users. Each scenario runs on
+ * its own, then all of them together as a busy morning; throughput and
+ * latency percentiles per operation are printed and written as JSON.
+ *
+ * <p>Options are Spring properties, e.g. {@code -Dload.duration=60
+ * -Dload.vus.booking=100}; see the {@code load} profile in the pom.
+ */
+public final class LoadHarness {
+
+    private LoadHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        // Devtools would restart the context in a second classloader mid-run
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        // Every virtual user logs in from the same address. A system property,
+        // as the default properties rank below concurrency.properties.
+        System.getProperties().putIfAbsent("ratelimit.login.principal.rate", "0");
+        SpringApplication application = new SpringApplication(BackEndApplication.class, LoadStandIns.class);
+        application.setDefaultProperties(defaults());
+        try (ConfigurableApplicationContext context = application.run(args)) {
+            Environment env = context.getEnvironment();
+            Fixture fixture = Fixture.seed(context, env.getProperty("load.doctors", Integer.class, 200),
+                    env.getProperty("load.patients", Integer.class, 2000));
+
+            int patients = env.getProperty("load.vus.patients", Integer.class, 50);
+            int booking = env.getProperty("load.vus.booking", Integer.class, 50);
+            int doctors = env.getProperty("load.vus.doctors", Integer.class, 20);
+            int admins = env.getProperty("load.vus.admins", Integer.class, 5);
+            int hotDoctors = env.getProperty("load.booking.hot-doctors", Integer.class, 5);
+            int bookingDays = env.getProperty("load.booking.days", Integer.class, 14);
+            Set<String> only = new HashSet<>(List.of(env.getProperty("load.scenarios", String[].class, new String[0])));
+
+            List<List<Scenario>> runs = new ArrayList<>();
+            runs.add(List.of(new Scenario.PatientBrowsing(patients)));
+            runs.add(List.of(new Scenario.BookingStorm(booking, hotDoctors, bookingDays)));
+            runs.add(List.of(new Scenario.DoctorDashboard(doctors)));
+            runs.add(List.of(new Scenario.AdminDashboard(admins)));
+            runs.add(List.of(new Scenario.PatientBrowsing(patients), new Scenario.BookingStorm(booking, hotDoctors,
+                    bookingDays), new Scenario.DoctorDashboard(doctors), new Scenario.AdminDashboard(admins)));
+
+            LoadRunner runner = new LoadRunner(
+                    HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+                            .connectTimeout(Duration.ofSeconds(5)).build(),
+                    "http://localhost:" + env.getProperty("local.server.port"), fixture,
+                    Duration.ofSeconds(env.getProperty("load.warmup", Long.class, 10L)),
+                    Duration.ofSeconds(env.getProperty("load.duration", Long.class, 30L)));
+
+            List<Map<String, Object>> results = new ArrayList<>();
+            for (List<Scenario> run : runs) {
+                String name = run.size() == 1 ? run.get(0).name : "monday-peak";
+                if (!only.isEmpty() && !only.contains(name)) {
+                    continue;
+                }
+                Map<String, Object> summary = runner.run(name, run);
+                print(summary);
+                results.add(summary);
+            }
+
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("doctors", fixture.doctorIds.size());
+            report.put("patients", fixture.patientIds.size());
+            report.put("scenarios", results);
+            File file = new File(env.getProperty("load.report", "target/load-report.json"));
+            if (file.getParentFile() != null) {
+                file.getParentFile().mkdirs();
+            }
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, report);
+            System.out.println("Report written to " + file.getAbsolutePath());
+        }
+    }
+
+    private static Map<String, Object> defaults() {
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        Map<String, Object> defaults = new HashMap<>();
+        defaults.put("spring.datasource.url", "jdbc:h2:mem:load;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        defaults.put("spring.datasource.username", "sa");
+        defaults.put("spring.datasource.password", "");
+        defaults.put("spring.jpa.hibernate.ddl-auto", "create-drop");
+        // Nothing listens here; the stand-ins keep MongoDB off the measured paths
+        defaults.put("spring.data.mongodb.uri",
+                "mongodb://localhost:27017/load?serverSelectionTimeoutMS=500&connectTimeoutMS=500");
+        defaults.put("jwt.secret", HexFormat.of().formatHex(secret));
+        defaults.put("api.path", "/");
+        defaults.put("server.port", "0");
+        defaults.put("spring.main.banner-mode", "off");
+        defaults.put("logging.level.root", "WARN");
+        // Its startup index check is expected to fail without MongoDB
+        defaults.put("logging.level.com.project.back_end.services.PrescriptionService", "ERROR");
+        return defaults;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void print(Map<String, Object> summary) {
+        System.out.printf("%n== %s (%ss)%n", summary.get("scenario"), summary.get("seconds"));
+        System.out.printf("%-22s %9s %9s %8s %8s %8s %8s %8s  %s%n", "operation", "requests", "req/s",
+                "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "statuses");
+        Map<String, Object> rows = new LinkedHashMap<>((Map<String, Object>) summary.get("operations"));
+        rows.put("total", summary.get("total"));
+        rows.forEach((operation, value) -> {
+            Map<String, Object> row = (Map<String, Object>) value;
+            System.out.printf("%-22s %9s %9s %8s %8s %8s %8s %8s  %s%n", operation, row.get("requests"),
+                    row.get("throughput"), row.get("p50Ms"), row.get("p90Ms"), row.get("p99Ms"), row.get("p999Ms"),
+                    row.get("maxMs"), row.get("statuses"));
+        });
+    }
+}
@@ -0,0 +1,84 @@
+package com.project.back_end.load;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Runs a set of scenarios side by side: every virtual user gets its own
+// thread, logs in, then loops until the run ends. Only requests completed
+// after the warmup count towards the results.
+final class LoadRunner {
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final Fixture fixture;
+    private final Duration warmup;
+    private final Duration duration;
+
+    LoadRunner(HttpClient client, String baseUrl, Fixture fixture, Duration warmup, Duration duration) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+        this.fixture = fixture;
+        this.warmup = warmup;
+        this.duration = duration;
+    }
+
+    Map<String, Object> run(String name, List<Scenario> scenarios) throws InterruptedException {
+        Recorder recorder = new Recorder(name);
+        long end = System.nanoTime() + warmup.plus(duration).toNanos();
+        List<Thread> users = new ArrayList<>();
+        int user = 0;
+        for (Scenario scenario : scenarios) {
+            for (int i = 0; i < scenario.users; i++) {
+                Session session = new Session(client, baseUrl, recorder, fixture, user++);
+                Thread thread = new Thread(() -> loop(scenario, session, end), scenario.name + "-" + i);
+                thread.setDaemon(true);
+                users.add(thread);
+                thread.start();
+            }
+        }
+
+        Thread.sleep(warmup.toMillis());
+        recorder.start();
+        Thread.sleep(duration.toMillis());
+        recorder.stop();
+        for (Thread thread : users) {
+            thread.join();
+        }
+        return recorder.summary();
+    }
+
+    private static void loop(Scenario scenario, Session session, long end) {
+        // Spread the logins so users do not arrive in lockstep
+        if (!pause(ThreadLocalRandom.current().nextLong(scenario.thinkMillis + 1))) {
+            return;
+        }
+        // A refused login (e.g. 429 from admission control) is retried later
+        while (!scenario.setUp(session)) {
+            if (System.nanoTime() >= end || !pause(1000)) {
+                return;
+            }
+        }
+        while (System.nanoTime() < end) {
+            scenario.iterate(session);
+            // Think time jittered by +/-50% around the scenario's mean
+            long think = scenario.thinkMillis / 2 + ThreadLocalRandom.current().nextLong(scenario.thinkMillis + 1);
+            if (!pause(Math.min(think, Math.max(0, (end - System.nanoTime()) / 1_000_000)))) {
+                return;
+            }
+        }
+    }
+
+    private static boolean pause(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
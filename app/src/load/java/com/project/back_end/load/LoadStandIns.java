@@ -0,0 +1,40 @@
+package com.project.back_end.load;
+
+import com.project.back_end.services.PrescriptionService;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+// Local stand-ins for the harness. MySQL is replaced by H2 in MySQL mode
+// through properties (see LoadHarness); the only MongoDB read on the scenarios'
+// paths, the day view's prescription lookup, is answered from memory so that
+// no MongoDB server is needed and its latency does not mask the application's.
+@Configuration
+public class LoadStandIns {
+
+    @Bean
+    @Primary
+    public PrescriptionService inMemoryPrescriptions() {
+        return new PrescriptionService(null, null, null, null, null, null, null, 1) {
+            @Override
+            public Set<Long> findPrescribedAppointmentIds(Collection<Long> appointmentIds) {
+                // Roughly a third of past visits have a prescription
+                Set<Long> prescribed = new HashSet<>();
+                for (Long id : appointmentIds) {
+                    if (id % 3 == 0) {
+                        prescribed.add(id);
+                    }
+                }
+                return prescribed;
+            }
+
+            @Override
+            public void ensureIndexes() {
+            }
+        };
+    }
+}
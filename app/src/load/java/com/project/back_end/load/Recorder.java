@@ -0,0 +1,120 @@
+package com.project.back_end.load;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Latency samples and status counts for one scenario, per operation. Every
+// sample is kept so percentiles are exact; a run of a few minutes is a few
+// million longs at most.
+final class Recorder {
+
+    private final String scenario;
+    private final Map<String, Samples> operations = new ConcurrentHashMap<>();
+    private volatile boolean recording;
+    private long startedAt;
+    private long stoppedAt;
+
+    Recorder(String scenario) {
+        this.scenario = scenario;
+    }
+
+    void start() {
+        startedAt = System.nanoTime();
+        recording = true;
+    }
+
+    void stop() {
+        recording = false;
+        stoppedAt = System.nanoTime();
+    }
+
+    // status is the HTTP status, or 0 when the request failed without a response
+    void record(String operation, long nanos, int status) {
+        if (recording) {
+            operations.computeIfAbsent(operation, o -> new Samples()).add(nanos, status);
+        }
+    }
+
+    String getScenario() {
+        return scenario;
+    }
+
+    Map<String, Object> summary() {
+        double seconds = Math.max(1, stoppedAt - startedAt) / 1e9;
+        Samples all = new Samples();
+        Map<String, Object> byOperation = new TreeMap<>();
+        for (Map.Entry<String, Samples> entry : operations.entrySet()) {
+            Samples samples = entry.getValue().snapshot();
+            all.addAll(samples);
+            byOperation.put(entry.getKey(), samples.summary(seconds));
+        }
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("scenario", scenario);
+        summary.put("seconds", Math.round(seconds * 10) / 10.0);
+        summary.put("total", all.summary(seconds));
+        summary.put("operations", byOperation);
+        return summary;
+    }
+
+    private static final class Samples {
+        private long[] nanos = new long[1024];
+        private int size;
+        private final Map<Integer, Integer> statuses = new TreeMap<>();
+
+        synchronized void add(long sample, int status) {
+            if (size == nanos.length) {
+                nanos = Arrays.copyOf(nanos, size * 2);
+            }
+            nanos[size++] = sample;
+            statuses.merge(status, 1, Integer::sum);
+        }
+
+        synchronized Samples snapshot() {
+            Samples copy = new Samples();
+            copy.nanos = Arrays.copyOf(nanos, size);
+            copy.size = size;
+            copy.statuses.putAll(statuses);
+            return copy;
+        }
+
+        void addAll(Samples other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.nanos[i], -1);
+            }
+            statuses.remove(-1);
+            other.statuses.forEach((status, count) -> statuses.merge(status, count, Integer::sum));
+        }
+
+        Map<String, Object> summary(double seconds) {
+            long[] sorted = Arrays.copyOf(nanos, size);
+            Arrays.sort(sorted);
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("requests", size);
+            summary.put("throughput", Math.round(size / seconds * 10) / 10.0);
+            summary.put("p50Ms", millis(percentile(sorted, 0.50)));
+            summary.put("p90Ms", millis(percentile(sorted, 0.90)));
+            summary.put("p99Ms", millis(percentile(sorted, 0.99)));
+            summary.put("p999Ms", millis(percentile(sorted, 0.999)));
+            summary.put("maxMs", millis(sorted.length > 0 ? sorted[sorted.length - 1] : 0));
+            Map<String, Integer> byStatus = new LinkedHashMap<>();
+            statuses.forEach((status, count) -> byStatus.put(status == 0 ? "error" : String.valueOf(status), count));
+            summary.put("statuses", byStatus);
+            return summary;
+        }
+
+        private static long percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+        }
+
+        private static double millis(long nanos) {
+            return Math.round(nanos / 1e4) / 100.0;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.project.back_end.load;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+// A kind of user. Each virtual user logs in once and then repeats iterate()
+// with a think time in between, so the offered load follows the response
+// times the way real users' does (a closed loop).
+abstract class Scenario {
+
+    private static final TypeReference<List<String>> STRINGS = new TypeReference<List<String>>() {
+    };
+
+    final String name;
+    final int users;
+    final long thinkMillis;
+
+    Scenario(String name, int users, long thinkMillis) {
+        this.name = name;
+        this.users = users;
+        this.thinkMillis = thinkMillis;
+    }
+
+    // Returns false if the user could not log in and should not run
+    abstract boolean setUp(Session session);
+
+    abstract void iterate(Session session);
+
+    static String segment(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+
+    static <T> T pick(Session session, T[] values) {
+        return values[session.random().nextInt(values.length)];
+    }
+
+    static <T> T pick(Session session, List<T> values) {
+        return values.get(session.random().nextInt(values.size()));
+    }
+
+    // Patients looking for a doctor: the full list (revalidated with its ETag),
+    // a filtered search, then one doctor's free slots on some day.
+    static final class PatientBrowsing extends Scenario {
+
+        PatientBrowsing(int users) {
+            super("patient-browsing", users, 500);
+        }
+
+        @Override
+        boolean setUp(Session session) {
+            return session.login("patient", session.fixture.patientLogin(session.user));
+        }
+
+        @Override
+        void iterate(Session session) {
+            // Sessions end; some users come back and log in again
+            if (session.random().nextInt(20) == 0) {
+                session.login("patient", session.fixture.patientLogin(session.user));
+            }
+
+            Session.Response list = session.etag != null
+                    ? session.get("doctor.list", "/doctor", "If-None-Match", session.etag)
+                    : session.get("doctor.list", "/doctor");
+            if (list.etag != null) {
+                session.etag = list.etag;
+            }
+
+            String name = session.random().nextBoolean() ? pick(session, Fixture.FIRST_NAMES) : "null";
+            String speciality = session.random().nextBoolean() ? pick(session, Fixture.SPECIALITIES) : "null";
+            session.get("doctor.filter", "/doctor/filter/" + segment(name) + "/"
+                    + pick(session, Fixture.TIMES) + "/" + segment(speciality));
+
+            LocalDate day = LocalDate.now().plusDays(1 + session.random().nextInt(30));
+            session.get("doctor.availability", "/doctor/patient/" + pick(session, session.fixture.doctorIds)
+                    + "/" + day + "/" + session.token);
+        }
+    }
+
+    // Many patients after the same few doctors' slots: read the free slots and
+    // try to book one of them. A lost race is a 409, not an error.
+    static final class BookingStorm extends Scenario {
+
+        private final int hotDoctors;
+        private final int days;
+
+        BookingStorm(int users, int hotDoctors, int days) {
+            super("booking-storm", users, 200);
+            this.hotDoctors = hotDoctors;
+            this.days = days;
+        }
+
+        @Override
+        boolean setUp(Session session) {
+            return session.login("patient", session.fixture.patientLogin(session.user));
+        }
+
+        @Override
+        void iterate(Session session) {
+            List<Long> doctorIds = session.fixture.doctorIds;
+            long doctorId = doctorIds.get(session.random().nextInt(Math.min(hotDoctors, doctorIds.size())));
+            LocalDate day = LocalDate.now().plusDays(1 + session.random().nextInt(days));
+
+            Session.Response free = session.get("doctor.availability",
+                    "/doctor/patient/" + doctorId + "/" + day + "/" + session.token);
+            if (free.status != 200) {
+                return;
+            }
+            List<String> slots = free.json(STRINGS);
+            if (slots.isEmpty()) {
+                return;
+            }
+            String start = pick(session, slots).substring(0, 5);
+            long patientId = session.fixture.patientIds.get(session.user % session.fixture.patientIds.size());
+            session.post("appointment.book", "/appointments/" + session.token, Map.of(
+                    "doctor", Map.of("id", doctorId),
+                    "patient", Map.of("id", patientId),
+                    "appointmentDate", day + "T" + start + ":00"));
+        }
+    }
+
+    // Doctors keeping their day view open; the dashboard refreshes every second
+    static final class DoctorDashboard extends Scenario {
+
+        DoctorDashboard(int users) {
+            super("doctor-dashboard", users, 1000);
+        }
+
+        @Override
+        boolean setUp(Session session) {
+            return session.login("doctor", session.fixture.doctorLogin(session.user));
+        }
+
+        @Override
+        void iterate(Session session) {
+            LocalDate day = LocalDate.now().plusDays(session.random().nextInt(7));
+            session.get("doctor.day", "/doctor/day/" + day + "/" + session.token);
+        }
+    }
+
+    // Admins watching the counters and paging through recent appointments
+    static final class AdminDashboard extends Scenario {
+
+        AdminDashboard(int users) {
+            super("admin-dashboard", users, 2000);
+        }
+
+        @Override
+        boolean setUp(Session session) {
+            return session.login("admin", session.fixture.adminLogin());
+        }
+
+        @Override
+        void iterate(Session session) {
+            session.get("admin.stats", "/admin/stats/" + session.token);
+            session.get("appointment.page", "/appointments/page/" + session.token + "?limit=50");
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.project.back_end.load;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+// One virtual user: issues requests against the running application and
+// records each one under its operation name.
+final class Session {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    final Fixture fixture;
+    final int user;
+    String token;
+    String etag;
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final Recorder recorder;
+
+    Session(HttpClient client, String baseUrl, Recorder recorder, Fixture fixture, int user) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+        this.recorder = recorder;
+        this.fixture = fixture;
+        this.user = user;
+    }
+
+    ThreadLocalRandom random() {
+        return ThreadLocalRandom.current();
+    }
+
+    Response get(String operation, String path, String... headers) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(TIMEOUT).GET();
+        for (int i = 0; i + 1 < headers.length; i += 2) {
+            request.header(headers[i], headers[i + 1]);
+        }
+        return send(operation, request.build());
+    }
+
+    Response post(String operation, String path, Object body) {
+        return send(operation, HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(write(body)))
+                .build());
+    }
+
+    // Logs in and keeps the token; false if the login was refused
+    boolean login(String role, Map<String, String> credentials) {
+        Response response = post(role + ".login", "/" + role + "/login", credentials);
+        if (response.status != 200) {
+            return false;
+        }
+        token = String.valueOf(response.json(new TypeReference<Map<String, Object>>() {
+        }).get("token"));
+        return true;
+    }
+
+    private Response send(String operation, HttpRequest request) {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            recorder.record(operation, System.nanoTime() - start, response.statusCode());
+            return new Response(response.statusCode(), response.body(),
+                    response.headers().firstValue("ETag").orElse(null));
+        } catch (IOException e) {
+            recorder.record(operation, System.nanoTime() - start, 0);
+            return new Response(0, "", null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Response(0, "", null);
+        }
+    }
+
+    private static String write(Object body) {
+        try {
+            return JSON.writeValueAsString(body);
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    static final class Response {
+        final int status;
+        final String body;
+        final String etag;
+
+        Response(int status, String body, String etag) {
+            this.status = status;
+            this.body = body;
+            this.etag = etag;
+        }
+
+        <T> T json(TypeReference<T> type) {
+            try {
+                return JSON.readValue(body, type);
+            } catch (IOException e) {
+                throw new IllegalStateException("Unexpected response body: " + body, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.project.back_end.DTO;
+
+import java.time.LocalDateTime;
+
+// One row of a doctor's day view: the slot, a patient summary and whether a
+// prescription has been written for it.
+public class DoctorDayEntry {
+
+    private final Long id;
+    private final LocalDateTime appointmentDate;
+    private final String status;
+    private final Long patientId;
+    private final String patientName;
+    private final String patientPhone;
+    private final String patientEmail;
+    private boolean prescribed;
+
+    public DoctorDayEntry(Long id, LocalDateTime appointmentDate, String status, Long patientId, String patientName,
+            String patientPhone, String patientEmail) {
+        this.id = id;
+        this.appointmentDate = appointmentDate;
+        this.status = status;
+        this.patientId = patientId;
+        this.patientName = patientName;
+        this.patientPhone = patientPhone;
+        this.patientEmail = patientEmail;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public LocalDateTime getAppointmentDate() {
+        return appointmentDate;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public Long getPatientId() {
+        return patientId;
+    }
+
+    public String getPatientName() {
+        return patientName;
+    }
+
+    public String getPatientPhone() {
+        return patientPhone;
+    }
+
+    public String getPatientEmail() {
+        return patientEmail;
+    }
+
+    public boolean isPrescribed() {
+        return prescribed;
+    }
+
+    public void setPrescribed(boolean prescribed) {
+        this.prescribed = prescribed;
+    }
+}
@@ -0,0 +1,93 @@
+package com.project.back_end.config;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+// Caps how many requests may work against one backend at a time, so a slow
+// backend can only tie up its own share of the request threads.
+public final class Bulkhead {
+
+    private final String name;
+    private final int permits;
+    private final long acquireTimeoutMillis;
+    private final Semaphore semaphore;
+    private final LongAdder rejected = new LongAdder();
+    // Set while the current thread's request holds a permit, so work it calls
+    // into does not take a second one
+    private final ThreadLocal<Boolean> held = new ThreadLocal<>();
+
+    public Bulkhead(String name, int permits, long acquireTimeoutMillis) {
+        this.name = name;
+        this.permits = permits;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.semaphore = new Semaphore(permits, true);
+    }
+
+    // Waits up to the bulkhead's acquire timeout for a permit
+    public boolean tryAcquire() {
+        try {
+            if (semaphore.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        rejected.increment();
+        return false;
+    }
+
+    public void release() {
+        semaphore.release();
+    }
+
+    void markHeld() {
+        held.set(Boolean.TRUE);
+    }
+
+    void clearHeld() {
+        held.remove();
+    }
+
+    // Runs work that reaches the backend from a request admitted without this
+    // bulkhead's permit (an @InMemory handler on a miss, or a handler bound to
+    // the other backend), holding a permit for just that long. Throws
+    // BulkheadFullException when none frees up in time.
+    public <T> T call(Supplier<T> work) {
+        if (held.get() != null) {
+            return work.get();
+        }
+        if (!tryAcquire()) {
+            throw new BulkheadFullException(name);
+        }
+        held.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            held.remove();
+            release();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getPermits() {
+        return permits;
+    }
+
+    public int getAvailable() {
+        return semaphore.availablePermits();
+    }
+
+    // Requests currently waiting for a permit
+    public int getQueueLength() {
+        return semaphore.getQueueLength();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+}
@@ -0,0 +1,69 @@
+package com.project.back_end.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+
+// The bulkheads are beans of their own, apart from the interceptors in
+// ConcurrencyConfig, so services (TokenService) can take permits from them too.
+@Configuration
+@PropertySource("classpath:concurrency.properties")
+public class BulkheadConfig {
+
+    // MongoDB driver default for maxPoolSize
+    private static final int MONGO_DEFAULT_POOL_SIZE = 100;
+
+    @Bean
+    public Bulkhead jdbcBulkhead(DataSource dataSource, MeterRegistry meterRegistry,
+            @Value("${bulkhead.jdbc.permits:0}") int permits,
+            @Value("${bulkhead.jdbc.acquire-timeout-ms:1000}") long timeoutMillis) {
+        // 0 means "size to the connection pool"
+        if (permits <= 0) {
+            permits = jdbcPoolSize(dataSource);
+        }
+        return register(new Bulkhead("jdbc", permits, timeoutMillis), meterRegistry);
+    }
+
+    @Bean
+    public Bulkhead mongoBulkhead(MeterRegistry meterRegistry,
+            @Value("${bulkhead.mongo.permits:0}") int permits,
+            @Value("${bulkhead.mongo.acquire-timeout-ms:0}") long timeoutMillis) {
+        if (permits <= 0) {
+            permits = MONGO_DEFAULT_POOL_SIZE;
+        }
+        return register(new Bulkhead("mongo", permits, timeoutMillis), meterRegistry);
+    }
+
+    // The DataSource is either Boot's Hikari pool or, with a read replica, a
+    // lazy proxy around the routing DataSource over a primary and a replica pool
+    private static int jdbcPoolSize(DataSource dataSource) {
+        if (dataSource instanceof DelegatingDataSource) {
+            dataSource = ((DelegatingDataSource) dataSource).getTargetDataSource();
+        }
+        if (dataSource instanceof ReadWriteRoutingDataSource) {
+            return ((ReadWriteRoutingDataSource) dataSource).getMaximumPoolSize();
+        }
+        return dataSource instanceof HikariDataSource ? ((HikariDataSource) dataSource).getMaximumPoolSize() : 10;
+    }
+
+    private static Bulkhead register(Bulkhead bulkhead, MeterRegistry registry) {
+        Gauge.builder("bulkhead.available", bulkhead, Bulkhead::getAvailable)
+                .tag("backend", bulkhead.getName())
+                .register(registry);
+        Gauge.builder("bulkhead.permits", bulkhead, Bulkhead::getPermits)
+                .tag("backend", bulkhead.getName())
+                .register(registry);
+        FunctionCounter.builder("bulkhead.rejected", bulkhead, Bulkhead::getRejected)
+                .tag("backend", bulkhead.getName())
+                .register(registry);
+        return bulkhead;
+    }
+}
@@ -0,0 +1,9 @@
+package com.project.back_end.config;
+
+// No permit of the named bulkhead freed up in time; answered 503 by ServerBusy.
+public class BulkheadFullException extends RuntimeException {
+
+    public BulkheadFullException(String bulkhead) {
+        super("No " + bulkhead + " permit available");
+    }
+}
@@ -0,0 +1,77 @@
+package com.project.back_end.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.io.IOException;
+
+// Admits each controller request into the bulkhead of the backend it uses,
+// answering 503 when no permit frees up in time. @InMemory handlers need no
+// backend and are let through; what they do reach the database for takes its
+// own permit through Bulkhead.call. A permit is held across
+// async dispatches (streamed responses) and released when the request ends.
+public class BulkheadInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String PERMIT = BulkheadInterceptor.class.getName() + ".permit";
+
+    private final Bulkhead jdbc;
+    private final Bulkhead mongo;
+
+    public BulkheadInterceptor(Bulkhead jdbc, Bulkhead mongo) {
+        this.jdbc = jdbc;
+        this.mongo = mongo;
+    }
+
+    @Override
+    public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+            @NonNull Object handler) throws IOException {
+        if (!(handler instanceof HandlerMethod) || request.getAttribute(PERMIT) != null) {
+            return true;
+        }
+        HandlerMethod method = (HandlerMethod) handler;
+        if (method.hasMethodAnnotation(InMemory.class)) {
+            return true;
+        }
+        Bulkhead bulkhead = method.getBeanType().isAnnotationPresent(MongoBound.class) ? mongo : jdbc;
+        if (!bulkhead.tryAcquire()) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader("Retry-After", "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"message\":\"Server busy, please retry\"}");
+            return false;
+        }
+        request.setAttribute(PERMIT, bulkhead);
+        bulkhead.markHeld();
+        return true;
+    }
+
+    // The request carries on (and keeps its permit) on another thread; this one
+    // goes back to the pool
+    @Override
+    public void afterConcurrentHandlingStarted(@NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response, @NonNull Object handler) {
+        Object bulkhead = request.getAttribute(PERMIT);
+        if (bulkhead != null) {
+            ((Bulkhead) bulkhead).clearHeld();
+        }
+    }
+
+    @Override
+    public void afterCompletion(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+            @NonNull Object handler, Exception ex) {
+        if (request.isAsyncStarted()) {
+            return;
+        }
+        Object bulkhead = request.getAttribute(PERMIT);
+        if (bulkhead != null) {
+            request.removeAttribute(PERMIT);
+            ((Bulkhead) bulkhead).clearHeld();
+            ((Bulkhead) bulkhead).release();
+        }
+    }
+}
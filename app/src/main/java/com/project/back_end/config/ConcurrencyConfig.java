@@ -0,0 +1,51 @@
+package com.project.back_end.config;
+
+import com.project.back_end.services.TokenService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.core.env.Environment;
+import org.springframework.lang.NonNull;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@PropertySource("classpath:concurrency.properties")
+public class ConcurrencyConfig implements WebMvcConfigurer {
+
+    private final Bulkhead jdbcBulkhead;
+    private final Bulkhead mongoBulkhead;
+    private final RateLimitInterceptor rateLimitInterceptor;
+
+    public ConcurrencyConfig(@Qualifier("jdbcBulkhead") Bulkhead jdbcBulkhead,
+            @Qualifier("mongoBulkhead") Bulkhead mongoBulkhead, MeterRegistry meterRegistry,
+            Environment environment, TokenService tokenService,
+            @Value("${ratelimit.jdbc-reserve:0.25}") double jdbcReserve,
+            @Value("${ratelimit.max-principals:100000}") int maxPrincipals) {
+        this.jdbcBulkhead = jdbcBulkhead;
+        this.mongoBulkhead = mongoBulkhead;
+        this.rateLimitInterceptor = new RateLimitInterceptor(environment, jdbcBulkhead, meterRegistry, tokenService,
+                jdbcReserve, maxPrincipals);
+    }
+
+    @Bean
+    public BulkheadInterceptor bulkheadInterceptor() {
+        return new BulkheadInterceptor(jdbcBulkhead, mongoBulkhead);
+    }
+
+    // A bean so that its sweep is scheduled
+    @Bean
+    public RateLimitInterceptor rateLimitInterceptor() {
+        return rateLimitInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(@NonNull InterceptorRegistry registry) {
+        // Over-limit requests are turned away before they queue for a permit
+        registry.addInterceptor(rateLimitInterceptor());
+        registry.addInterceptor(bulkheadInterceptor());
+    }
+}
@@ -0,0 +1,91 @@
+package com.project.back_end.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+// Hibernate second-level cache for the read-mostly Doctor, Patient and Admin
+// entities and the email/username lookups, kept in bounded Caffeine caches in
+// this JVM. Every region is created here; an entity or query cached under a
+// region that is not listed fails startup rather than growing unbounded.
+@Configuration
+@PropertySource("classpath:cache.properties")
+public class EntityCacheConfig {
+
+    public static final String DOCTOR_REGION = "doctor";
+    public static final String PATIENT_REGION = "patient";
+    public static final String ADMIN_REGION = "admin";
+    public static final String QUERY_REGION = "default-query-results-region";
+    public static final String TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    static final List<String> REGIONS = List.of(DOCTOR_REGION, PATIENT_REGION, ADMIN_REGION, QUERY_REGION,
+            TIMESTAMPS_REGION);
+
+    @Bean(destroyMethod = "close")
+    public CacheManager entityCacheManager(MeterRegistry meterRegistry,
+            @Value("${entity-cache.doctor.max-entries:10000}") long doctorEntries,
+            @Value("${entity-cache.patient.max-entries:50000}") long patientEntries,
+            @Value("${entity-cache.admin.max-entries:1000}") long adminEntries,
+            @Value("${entity-cache.query.max-entries:50000}") long queryEntries,
+            @Value("${entity-cache.ttl-seconds:600}") long ttlSeconds) {
+        // A manager of its own, so other JCache users in the JVM do not share regions
+        CacheManager manager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("entity-cache"), EntityCacheConfig.class.getClassLoader());
+        create(manager, DOCTOR_REGION, doctorEntries, ttlSeconds);
+        create(manager, PATIENT_REGION, patientEntries, ttlSeconds);
+        create(manager, ADMIN_REGION, adminEntries, ttlSeconds);
+        create(manager, QUERY_REGION, queryEntries, ttlSeconds);
+        // One entry per table; must never be evicted while query results depend on it
+        create(manager, TIMESTAMPS_REGION, 0, 0);
+        for (String region : REGIONS) {
+            JCacheMetrics.monitor(meterRegistry, manager.getCache(region));
+        }
+        return manager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheCustomizer(CacheManager entityCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, entityCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    // maxEntries and ttlSeconds of 0 mean unbounded. The TTL bounds how long
+    // another instance's write can go unnoticed: each instance only evicts
+    // what it changed itself.
+    private static void create(CacheManager manager, String region, long maxEntries, long ttlSeconds) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        // Hibernate caches its own disassembled state; copying it again buys nothing
+        configuration.setStoreByValue(false);
+        configuration.setStatisticsEnabled(true);
+        if (maxEntries > 0) {
+            configuration.setMaximumSize(OptionalLong.of(maxEntries));
+        }
+        if (ttlSeconds > 0) {
+            configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(ttlSeconds)));
+        }
+        // The provider hands out the same manager to every context in the JVM
+        if (manager.getCache(region) == null) {
+            manager.createCache(region, configuration);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.project.back_end.config;
+
+import org.springframework.stereotype.Component;
+
+import javax.cache.CacheManager;
+import javax.cache.management.CacheStatisticsMXBean;
+import javax.management.JMX;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Per-region hit, miss, put and eviction counts of the second-level cache,
+// read from the JCache statistics beans the provider registers with JMX.
+@Component
+public class EntityCacheStatistics {
+
+    private final CacheManager entityCacheManager;
+
+    public EntityCacheStatistics(CacheManager entityCacheManager) {
+        this.entityCacheManager = entityCacheManager;
+    }
+
+    public Map<String, Map<String, Long>> snapshot() {
+        Map<String, Map<String, Long>> regions = new LinkedHashMap<>();
+        for (String region : EntityCacheConfig.REGIONS) {
+            CacheStatisticsMXBean statistics = JMX.newMXBeanProxy(ManagementFactory.getPlatformMBeanServer(),
+                    objectName(region), CacheStatisticsMXBean.class);
+            Map<String, Long> counts = new LinkedHashMap<>();
+            counts.put("hits", statistics.getCacheHits());
+            counts.put("misses", statistics.getCacheMisses());
+            counts.put("puts", statistics.getCachePuts());
+            counts.put("removals", statistics.getCacheRemovals());
+            counts.put("evictions", statistics.getCacheEvictions());
+            regions.put(region, counts);
+        }
+        return regions;
+    }
+
+    // The JSR-107 naming scheme, with the separators JMX reserves replaced
+    private ObjectName objectName(String region) {
+        try {
+            return new ObjectName("javax.cache:type=CacheStatistics,CacheManager="
+                    + sanitize(entityCacheManager.getURI().toString()) + ",Cache=" + sanitize(region));
+        } catch (MalformedObjectNameException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String sanitize(String name) {
+        return name.replaceAll("[,:=\n]", ".");
+    }
+}
@@ -0,0 +1,19 @@
+package com.project.back_end.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Marks a handler answered from an in-memory index or cache; it takes no
+// bulkhead permit, so it keeps answering while the JDBC pool is saturated.
+// Only use it where every reload behind the handler is single-flighted and
+// serves the stale data meanwhile (DoctorListCache, DoctorDirectoryIndex,
+// AvailabilityIndex), so an expiry sends one query per cache entry to the
+// pool rather than one per request in flight. Misses that do reach the
+// database (token resolution, availability loads) take a JDBC permit for the
+// query through Bulkhead.call and answer 503 when none is free.
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface InMemory {
+}
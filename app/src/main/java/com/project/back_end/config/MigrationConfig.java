@@ -0,0 +1,21 @@
+package com.project.back_end.config;
+
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@Configuration
+public class MigrationConfig {
+
+    @Bean(initMethod = "run")
+    public SlotMigration slotMigration(JdbcTemplate jdbcTemplate) {
+        return new SlotMigration(jdbcTemplate);
+    }
+
+    // Data migrations finish before Hibernate starts up
+    @Bean
+    public static EntityManagerFactoryDependsOnPostProcessor migrationsBeforeJpa() {
+        return new EntityManagerFactoryDependsOnPostProcessor("slotMigration");
+    }
+}
@@ -0,0 +1,15 @@
+package com.project.back_end.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Marks a controller whose requests are served mainly from MongoDB; they run
+// under the Mongo bulkhead instead of the JDBC one. What they still ask MySQL
+// (token resolution on a cache miss, appointment lookups) takes a JDBC permit
+// for the query through Bulkhead.call.
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface MongoBound {
+}
@@ -0,0 +1,171 @@
+package com.project.back_end.config;
+
+import com.project.back_end.services.TokenService;
+import com.project.back_end.services.VerifiedPrincipal;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// Admission control for @RateLimited handlers, ahead of the bulkheads. A
+// request must get a token from its principal's bucket (the admin, doctor or
+// patient the path token verifies as, else the client address; shared by the
+// endpoints with the same limit name) and from its endpoint's bucket (all
+// clients together). Keying on the verified principal means made-up tokens
+// cannot mint fresh buckets and crowd real users out of their own. Bookings and
+// other unmarked traffic come first: these requests are shed while anything
+// waits for a JDBC permit, and together never hold the last jdbcReserve
+// share of them. Rejections are answered at once with 429 and Retry-After.
+public class RateLimitInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String SLOT = RateLimitInterceptor.class.getName() + ".slot";
+
+    private final Environment environment;
+    private final Bulkhead jdbc;
+    private final MeterRegistry meterRegistry;
+    private final TokenService tokenService;
+    private final Semaphore slots;
+    private final int maxPrincipals;
+
+    private final Map<HandlerMethod, Limits> limits = new ConcurrentHashMap<>();
+    private final Map<String, TokenBucket> principals = new ConcurrentHashMap<>();
+
+    public RateLimitInterceptor(Environment environment, Bulkhead jdbc, MeterRegistry meterRegistry,
+            TokenService tokenService, double jdbcReserveFraction, int maxPrincipals) {
+        this.environment = environment;
+        this.jdbc = jdbc;
+        this.meterRegistry = meterRegistry;
+        this.tokenService = tokenService;
+        this.slots = new Semaphore(Math.max(1, jdbc.getPermits() - (int) Math.ceil(jdbc.getPermits()
+                * jdbcReserveFraction)));
+        this.maxPrincipals = maxPrincipals;
+    }
+
+    @Override
+    public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+            @NonNull Object handler) throws IOException {
+        if (!(handler instanceof HandlerMethod) || request.getDispatcherType() != DispatcherType.REQUEST) {
+            return true;
+        }
+        HandlerMethod method = (HandlerMethod) handler;
+        RateLimited rateLimited = method.getMethodAnnotation(RateLimited.class);
+        if (rateLimited == null) {
+            return true;
+        }
+        String name = rateLimited.value();
+
+        if (jdbc.getQueueLength() > 0 || !slots.tryAcquire()) {
+            return reject(response, name, "shed", TimeUnit.SECONDS.toNanos(1));
+        }
+        boolean admitted = false;
+        try {
+            long now = System.nanoTime();
+            Limits endpoint = limits.computeIfAbsent(method, m -> new Limits(name, now));
+            // Principal first, so a client over its own limit does not drain the shared bucket
+            if (endpoint.principalRate > 0) {
+                long wait = principalBucket(name, principal(request), endpoint, now).tryTake(now);
+                if (wait > 0) {
+                    return reject(response, name, "principal", wait);
+                }
+            }
+            if (endpoint.bucket != null) {
+                long wait = endpoint.bucket.tryTake(now);
+                if (wait > 0) {
+                    return reject(response, name, "endpoint", wait);
+                }
+            }
+            admitted = true;
+            request.setAttribute(SLOT, Boolean.TRUE);
+            return true;
+        } finally {
+            if (!admitted) {
+                slots.release();
+            }
+        }
+    }
+
+    @Override
+    public void afterCompletion(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+            @NonNull Object handler, Exception ex) {
+        if (request.isAsyncStarted()) {
+            return;
+        }
+        if (request.getAttribute(SLOT) != null) {
+            request.removeAttribute(SLOT);
+            slots.release();
+        }
+    }
+
+    // Drops buckets that have refilled; they would start out full anyway
+    @Scheduled(fixedDelayString = "${ratelimit.sweep-ms:60000}")
+    public void sweep() {
+        long now = System.nanoTime();
+        principals.values().removeIf(bucket -> bucket.isFull(now));
+    }
+
+    // Past the cap, unseen principals share one bucket per limit name, so a
+    // flood of distinct clients is still held to a principal's rate overall
+    private TokenBucket principalBucket(String name, String principal, Limits endpoint, long now) {
+        String key = name + "|" + principal;
+        TokenBucket bucket = principals.get(key);
+        if (bucket == null) {
+            if (principals.size() >= maxPrincipals) {
+                key = name + "|*";
+            }
+            bucket = principals.computeIfAbsent(key,
+                    k -> new TokenBucket(endpoint.principalRate, endpoint.principalBurst, now));
+        }
+        return bucket;
+    }
+
+    @SuppressWarnings("unchecked")
+    private String principal(HttpServletRequest request) {
+        Map<String, String> variables = (Map<String, String>) request
+                .getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        String token = variables != null ? variables.get("token") : null;
+        VerifiedPrincipal principal = token != null ? tokenService.getBoundPrincipal(token) : null;
+        return principal != null ? principal.getRole() + ":" + principal.getId() : "addr:" + request.getRemoteAddr();
+    }
+
+    private boolean reject(HttpServletResponse response, String name, String reason, long waitNanos)
+            throws IOException {
+        meterRegistry.counter("ratelimit.rejected", "limit", name, "reason", reason).increment();
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        // Whole seconds, rounded up
+        response.setHeader("Retry-After", String.valueOf((waitNanos + 999_999_999L) / 1_000_000_000L));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"message\":\"Too many requests, please retry later\"}");
+        return false;
+    }
+
+    // Limits of one endpoint, read once; a rate of 0 turns that check off
+    private final class Limits {
+        private final TokenBucket bucket;
+        private final double principalRate;
+        private final double principalBurst;
+
+        Limits(String name, long now) {
+            String prefix = "ratelimit." + name + ".";
+            double rate = environment.getProperty(prefix + "endpoint.rate", Double.class, 0d);
+            double burst = environment.getProperty(prefix + "endpoint.burst", Double.class, Math.max(1, rate));
+            this.bucket = rate > 0 ? new TokenBucket(rate, burst, now) : null;
+            this.principalRate = environment.getProperty(prefix + "principal.rate", Double.class, 0d);
+            this.principalBurst = environment.getProperty(prefix + "principal.burst", Double.class,
+                    Math.max(1, principalRate));
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.project.back_end.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Marks a handler whose requests pass token-bucket admission control, with the
+// limits configured under ratelimit.<value>.* (see concurrency.properties).
+// Such requests are also shed first when the JDBC bulkhead runs low, keeping
+// the remaining connections for bookings and other unmarked traffic.
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RateLimited {
+
+    String value();
+}
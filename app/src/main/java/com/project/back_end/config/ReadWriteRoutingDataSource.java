@@ -0,0 +1,56 @@
+package com.project.back_end.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+
+// Hands out replica connections inside @Transactional(readOnly = true) and
+// primary connections everywhere else. Must sit behind a
+// LazyConnectionDataSourceProxy: the transaction manager asks for its
+// connection before the read-only flag is bound to the thread, the proxy
+// defers that until the first statement.
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final String PRIMARY = "primary";
+    private static final String REPLICA = "replica";
+
+    private final HikariDataSource primary;
+    private final HikariDataSource replica;
+    private final ReplicaLagMonitor lagMonitor;
+    private final Counter replicaReads;
+    private final Counter primaryReads;
+
+    public ReadWriteRoutingDataSource(HikariDataSource primary, HikariDataSource replica,
+            ReplicaLagMonitor lagMonitor, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replica = replica;
+        this.lagMonitor = lagMonitor;
+        this.replicaReads = meterRegistry.counter("datasource.reads", "target", REPLICA);
+        this.primaryReads = meterRegistry.counter("datasource.reads", "target", PRIMARY);
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        if (lagMonitor.isUsable()) {
+            replicaReads.increment();
+            return REPLICA;
+        }
+        primaryReads.increment();
+        return PRIMARY;
+    }
+
+    // Connections this DataSource can hand out at once, across both pools
+    public int getMaximumPoolSize() {
+        return primary.getMaximumPoolSize() + replica.getMaximumPoolSize();
+    }
+}
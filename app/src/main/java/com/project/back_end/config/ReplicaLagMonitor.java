@@ -0,0 +1,104 @@
+package com.project.back_end.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// Decides whether the read replica may serve reads. The replica is polled
+// for its replication lag; reads go to the primary until the first check has
+// passed, while the replica is unreachable, while replication is stopped or
+// not configured, while the lag cannot be read and while it is further behind
+// than the configured maximum.
+public class ReplicaLagMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    // MySQL 8.0.22+ and older names for the lag column of SHOW REPLICA STATUS
+    private static final String[] LAG_COLUMNS = {"Seconds_Behind_Source", "Seconds_Behind_Master"};
+
+    private final DataSource replica;
+    private final long maxLagSeconds;
+    private final String lagQuery;
+    private final boolean assumeInSyncWhenNotReplicating;
+
+    private volatile boolean usable;
+    private volatile long lagSeconds = -1;
+
+    public ReplicaLagMonitor(DataSource replica, long maxLagSeconds, String lagQuery,
+            boolean assumeInSyncWhenNotReplicating) {
+        this.replica = replica;
+        this.maxLagSeconds = maxLagSeconds;
+        this.lagQuery = lagQuery;
+        this.assumeInSyncWhenNotReplicating = assumeInSyncWhenNotReplicating;
+    }
+
+    public boolean isUsable() {
+        return usable;
+    }
+
+    // Last measured lag, -1 if unknown
+    public long getLagSeconds() {
+        return lagSeconds;
+    }
+
+    @Scheduled(fixedDelayString = "${replica.lag-check-ms:1000}")
+    public void check() {
+        Long lag;
+        try (Connection connection = replica.getConnection();
+                Statement statement = connection.createStatement();
+                ResultSet rs = statement.executeQuery(lagQuery)) {
+            lag = readLag(rs);
+        } catch (SQLException e) {
+            if (usable) {
+                log.warn("Read replica unreachable, sending reads to the primary", e);
+            }
+            lagSeconds = -1;
+            usable = false;
+            return;
+        }
+
+        lagSeconds = lag != null ? lag : -1;
+        boolean nowUsable = lag != null && lag <= maxLagSeconds;
+        if (nowUsable != usable) {
+            if (nowUsable) {
+                log.info("Read replica in sync (lag {}s), routing read-only transactions to it", lag);
+            } else {
+                log.warn("Read replica lag {} over {}s, or replication stopped or not readable; sending reads"
+                        + " to the primary", lag != null ? lag + "s" : "unknown", maxLagSeconds);
+            }
+        }
+        usable = nowUsable;
+    }
+
+    // Returns null when the lag is unknown. No row means the server is not
+    // replicating at all, which only counts as current when explicitly assumed
+    // (e.g. a second local instance loaded from the same dump). A NULL lag means
+    // replication is configured but not running. A query without a lag column is
+    // only read if its result is that one column (a custom lag query).
+    private Long readLag(ResultSet rs) throws SQLException {
+        if (!rs.next()) {
+            return assumeInSyncWhenNotReplicating ? 0L : null;
+        }
+        ResultSetMetaData meta = rs.getMetaData();
+        int column = meta.getColumnCount() == 1 ? 1 : -1;
+        for (int i = 1; i <= meta.getColumnCount(); i++) {
+            for (String name : LAG_COLUMNS) {
+                if (name.equalsIgnoreCase(meta.getColumnLabel(i))) {
+                    column = i;
+                }
+            }
+        }
+        if (column < 0) {
+            return null;
+        }
+        long lag = rs.getLong(column);
+        return rs.wasNull() ? null : lag;
+    }
+}
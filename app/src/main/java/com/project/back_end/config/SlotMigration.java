@@ -0,0 +1,101 @@
+package com.project.back_end.config;
+
+import com.project.back_end.models.TimeSlot;
+import com.project.back_end.models.TimeSlotsConverter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Moves doctor slots from the old doctor_available_times table (one string
+ * row per slot) into the doctor.available_slots column.
+ *
+ * Runs before the JPA EntityManagerFactory starts, so Hibernate never sees a
+ * doctor without the column. It adds the column if needed and fills only rows
+ * where it is still NULL, so it can run on every startup. Strings that are not
+ * slots are logged and dropped. The old table is left in place and can be
+ * dropped once the migrated data has been checked.
+ */
+public class SlotMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(SlotMigration.class);
+
+    private static final int BATCH = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TimeSlotsConverter converter = new TimeSlotsConverter();
+
+    public SlotMigration(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void run() {
+        if (!exists("SELECT id FROM doctor WHERE 1 = 0")) {
+            // Fresh schema; Hibernate creates the table with the column
+            return;
+        }
+        if (!exists("SELECT available_slots FROM doctor WHERE 1 = 0")) {
+            jdbcTemplate.execute("ALTER TABLE doctor ADD COLUMN available_slots VARBINARY(1024)");
+            log.info("Added doctor.available_slots");
+        }
+        if (exists("SELECT doctor_id FROM doctor_available_times WHERE 1 = 0")) {
+            migrateLegacyRows();
+        }
+        // Doctors with no legacy rows have no slots
+        jdbcTemplate.update("UPDATE doctor SET available_slots = ? WHERE available_slots IS NULL", (Object) new byte[0]);
+    }
+
+    private void migrateLegacyRows() {
+        Map<Long, TreeSet<TimeSlot>> slots = new LinkedHashMap<>();
+        int[] dropped = {0};
+        jdbcTemplate.query("SELECT t.doctor_id, t.time_slot FROM doctor_available_times t"
+                + " JOIN doctor d ON d.id = t.doctor_id WHERE d.available_slots IS NULL ORDER BY t.doctor_id", rs -> {
+                    long doctorId = rs.getLong(1);
+                    String text = rs.getString(2);
+                    TimeSlot slot = TimeSlot.parse(text);
+                    if (slot == null) {
+                        log.warn("Dropping unparseable slot '{}' of doctor {}", text, doctorId);
+                        dropped[0]++;
+                        return;
+                    }
+                    slots.computeIfAbsent(doctorId, id -> new TreeSet<>()).add(slot);
+                });
+        List<Object[]> args = new ArrayList<>(BATCH);
+        for (Map.Entry<Long, TreeSet<TimeSlot>> entry : slots.entrySet()) {
+            args.add(new Object[] {converter.convertToDatabaseColumn(new ArrayList<>(entry.getValue())),
+                    entry.getKey()});
+            if (args.size() == BATCH) {
+                update(args);
+            }
+        }
+        update(args);
+        if (!slots.isEmpty() || dropped[0] > 0) {
+            log.info("Migrated slots of {} doctors from doctor_available_times ({} unparseable dropped)",
+                    slots.size(), dropped[0]);
+        }
+    }
+
+    private void update(List<Object[]> args) {
+        if (!args.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE doctor SET available_slots = ? WHERE id = ? AND available_slots IS NULL",
+                    args);
+            args.clear();
+        }
+    }
+
+    private boolean exists(String probe) {
+        try {
+            jdbcTemplate.queryForList(probe);
+            return true;
+        } catch (DataAccessException e) {
+            return false;
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.project.back_end.controllers;
 
+import com.project.back_end.config.RateLimited;
 import com.project.back_end.models.Admin;
+import com.project.back_end.services.CredentialVerifier;
 import com.project.back_end.services.Service; // Assuming the service is in this package
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
@@ -38,6 +40,7 @@ public class AdminController {
     // layer.
     // - Returns a `ResponseEntity` with a `Map` containing login status or
     // messages.
+    @RateLimited("login")
     @PostMapping("/login")
     public ResponseEntity<Map<String, String>> adminLogin(@RequestBody Admin admin) {
         // Use a Map for the response body, which will be converted to JSON.
@@ -46,6 +49,10 @@ public class AdminController {
         // Assuming service.validateAdmin(Admin) returns the token string if successful,
         // or an error message if failed.
         String result = service.validateAdmin(admin);
+        if (CredentialVerifier.BUSY.equals(result)) {
+            response.put("message", result);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "1").body(response);
+        }
 
         // Check if the result is a token (assuming tokens are long, complex strings)
         // A better check would be based on what your service layer is designed to
@@ -70,6 +77,23 @@ public class AdminController {
         return new ResponseEntity<>(service.getDashboardStats(), HttpStatus.OK);
     }
 
+    @GetMapping("/token-cache/{token}")
+    public ResponseEntity<Map<String, Long>> getTokenCacheStats(@PathVariable String token) {
+        if (!service.validateToken(token, "admin").equals("valid")) {
+            return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+        }
+        return new ResponseEntity<>(service.getTokenCacheStats(), HttpStatus.OK);
+    }
+
+    // Hits, misses, puts, removals and evictions per second-level cache region
+    @GetMapping("/entity-cache/{token}")
+    public ResponseEntity<Map<String, Map<String, Long>>> getEntityCacheStats(@PathVariable String token) {
+        if (!service.validateToken(token, "admin").equals("valid")) {
+            return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+        }
+        return new ResponseEntity<>(service.getEntityCacheStats(), HttpStatus.OK);
+    }
+
     /*
      * * NOTE: You can add other admin-related endpoints here, like:
      * 
@@ -1,15 +1,19 @@
 package com.project.back_end.controllers;
 
+import com.project.back_end.config.RateLimited;
 import com.project.back_end.models.Appointment;
 import com.project.back_end.services.AppointmentService;
 import com.project.back_end.services.Service;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -42,12 +46,29 @@ public class AppointmentController {
         return new ResponseEntity<>(service.getDoctorAppointments(token, date, patientName), HttpStatus.OK);
     }
 
+    // Same JSON array as before, but written incrementally in keyset batches
+    @RateLimited("list")
     @GetMapping("/all/{token}")
-    public ResponseEntity<List<Appointment>> getAllAppointments(@PathVariable String token) {
+    public ResponseEntity<StreamingResponseBody> getAllAppointments(@PathVariable String token) {
         if (!service.validateToken(token, "admin").equals("valid")) {
             return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
         }
-        return new ResponseEntity<>(service.getAllAppointments(), HttpStatus.OK);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(service::writeAllAppointments);
+    }
+
+    @GetMapping("/page/{token}")
+    public ResponseEntity<Map<String, Object>> getAppointmentsPage(
+            @PathVariable String token,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(defaultValue = "0") long afterId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterDate,
+            @RequestParam(defaultValue = "100") int limit) {
+        if (!service.validateToken(token, "admin").equals("valid")) {
+            return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+        }
+        return new ResponseEntity<>(service.getAppointmentsPage(sort, afterId, afterDate, limit), HttpStatus.OK);
     }
 
     @PostMapping("/{token}")
@@ -70,9 +91,18 @@ public class AppointmentController {
         }
 
         int result = appointmentService.saveAppointment(appointment);
-        if (result == 1) {
+        if (result == AppointmentService.BOOKED) {
             response.put("message", "Booked successfully");
             return new ResponseEntity<>(response, HttpStatus.CREATED);
+        } else if (result == AppointmentService.SLOT_TAKEN) {
+            response.put("message", "Slot unavailable");
+            return new ResponseEntity<>(response, HttpStatus.CONFLICT);
+        } else if (result == AppointmentService.INVALID) {
+            response.put("message", "Invalid appointment");
+            return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+        } else if (result == AppointmentService.BUSY) {
+            response.put("message", "Slot is being booked, please retry");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "1").body(response);
         }
         response.put("message", "Booking failed");
         return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
@@ -88,9 +118,21 @@ public class AppointmentController {
         }
 
         int result = appointmentService.updateAppointment(appointment);
-        if (result == 1) {
+        if (result == AppointmentService.BOOKED) {
             response.put("message", "Updated successfully");
             return new ResponseEntity<>(response, HttpStatus.OK);
+        } else if (result == AppointmentService.SLOT_TAKEN) {
+            response.put("message", "Slot unavailable");
+            return new ResponseEntity<>(response, HttpStatus.CONFLICT);
+        } else if (result == AppointmentService.NOT_FOUND) {
+            response.put("message", "Appointment not found");
+            return new ResponseEntity<>(response, HttpStatus.NOT_FOUND);
+        } else if (result == AppointmentService.INVALID) {
+            response.put("message", "Invalid appointment");
+            return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+        } else if (result == AppointmentService.BUSY) {
+            response.put("message", "Slot is being booked, please retry");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "1").body(response);
         }
         response.put("message", "Update failed");
         return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
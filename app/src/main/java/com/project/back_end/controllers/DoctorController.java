@@ -1,12 +1,20 @@
 package com.project.back_end.controllers;
 
+import com.project.back_end.config.InMemory;
+import com.project.back_end.config.RateLimited;
 import com.project.back_end.models.Doctor;
 import com.project.back_end.models.Login;
+import com.project.back_end.services.CredentialVerifier;
+import com.project.back_end.services.DoctorDayService;
+import com.project.back_end.services.DoctorListCache;
 import com.project.back_end.services.DoctorService;
 import com.project.back_end.services.Service;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -23,13 +31,16 @@ public class DoctorController {
 
     private final DoctorService doctorService;
     private final Service service;
+    private final DoctorDayService doctorDayService;
 
     @Autowired
-    public DoctorController(DoctorService doctorService, Service service) {
+    public DoctorController(DoctorService doctorService, Service service, DoctorDayService doctorDayService) {
         this.doctorService = doctorService;
         this.service = service;
+        this.doctorDayService = doctorDayService;
     }
 
+    @InMemory
     @GetMapping("/{user}/{doctorId}/{date}/{token}")
     public ResponseEntity<List<String>> getDoctorAvailability(
             @PathVariable String user,
@@ -45,6 +56,18 @@ public class DoctorController {
         return new ResponseEntity<>(times, HttpStatus.OK);
     }
 
+    // Appointments, patient summaries and prescription flags for one day
+    @GetMapping("/day/{date}/{token}")
+    public ResponseEntity<Map<String, Object>> getDoctorDay(
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @PathVariable String token) {
+        Map<String, Object> day = doctorDayService.getDay(token, date);
+        if (day == null) {
+            return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+        }
+        return new ResponseEntity<>(day, HttpStatus.OK);
+    }
+
     @GetMapping("/profile/{token}")
     public ResponseEntity<Doctor> getDoctorProfile(@PathVariable String token) {
         Doctor doctor = doctorService.getDoctorByToken(token);
@@ -54,11 +77,31 @@ public class DoctorController {
         return new ResponseEntity<>(doctor, HttpStatus.OK);
     }
 
+    // Same {"doctors": [...]} body as before, served from the cached bytes.
+    // no-cache makes browsers revalidate, which costs a 304 while nothing changed.
+    @InMemory
     @GetMapping
-    public ResponseEntity<Map<String, List<Doctor>>> getDoctor() {
-        Map<String, List<Doctor>> response = new HashMap<>();
-        response.put("doctors", doctorService.getDoctors());
-        return new ResponseEntity<>(response, HttpStatus.OK);
+    public ResponseEntity<byte[]> getDoctor(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        DoctorListCache.Snapshot snapshot = doctorService.getDoctorListSnapshot();
+        if (snapshot.matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(snapshot.getEtag())
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(snapshot.getEtag())
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(snapshot.getBody());
+    }
+
+    @GetMapping("/page")
+    public ResponseEntity<Map<String, Object>> getDoctorPage(
+            @RequestParam(defaultValue = "0") long afterId,
+            @RequestParam(defaultValue = "50") int limit) {
+        return new ResponseEntity<>(doctorService.getDoctorsPage(afterId, limit), HttpStatus.OK);
     }
 
     @PostMapping("/save/{token}")
@@ -83,10 +126,15 @@ public class DoctorController {
         }
     }
 
+    @RateLimited("login")
     @PostMapping("/login")
     public ResponseEntity<Map<String, String>> doctorLogin(@RequestBody Login login) {
         Map<String, String> response = new HashMap<>();
         String result = doctorService.validateDoctor(login);
+        if (CredentialVerifier.BUSY.equals(result)) {
+            response.put("message", result);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "1").body(response);
+        }
         if (result.startsWith("token:")) {
             response.put("token", result.substring("token:".length()));
             response.put("message", "Login successful");
@@ -109,10 +157,15 @@ public class DoctorController {
         // However, getDoctorByToken internal logic handles it.
 
         int result = doctorService.updateAvailability(token, availableTimes);
-        if (result == 1) {
+        if (result >= 0) {
             response.put("message", "Availability updated successfully");
+            response.put("rowsChanged", String.valueOf(result));
             return new ResponseEntity<>(response, HttpStatus.OK);
         }
+        if (result == -2) {
+            response.put("message", "Invalid time slot");
+            return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+        }
         response.put("message", "Update Failed");
         return new ResponseEntity<>(response, HttpStatus.UNAUTHORIZED);
     }
@@ -155,6 +208,7 @@ public class DoctorController {
         return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
+    @InMemory
     @GetMapping("/filter/{name}/{time}/{speciality}")
     public ResponseEntity<Map<String, List<Doctor>>> filter(
             @PathVariable String name,
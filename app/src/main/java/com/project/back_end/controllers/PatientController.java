@@ -1,14 +1,18 @@
 package com.project.back_end.controllers;
 
+import com.project.back_end.config.RateLimited;
 import com.project.back_end.DTO.AppointmentDTO;
 import com.project.back_end.models.Login;
 import com.project.back_end.models.Patient;
+import com.project.back_end.services.CredentialVerifier;
 import com.project.back_end.services.PatientService;
 import com.project.back_end.services.Service;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.HashMap;
 import java.util.List;
@@ -42,12 +46,27 @@ public class PatientController {
         return new ResponseEntity<>(HttpStatus.NOT_FOUND);
     }
 
+    // Same JSON array as before, but written incrementally in keyset batches
+    @RateLimited("list")
     @GetMapping("/all/{token}")
-    public ResponseEntity<List<Patient>> getAllPatients(@PathVariable String token) {
+    public ResponseEntity<StreamingResponseBody> getAllPatients(@PathVariable String token) {
         if (!service.validateToken(token, "admin").equals("valid")) {
             return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
         }
-        return new ResponseEntity<>(service.getAllPatients(), HttpStatus.OK);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(service::writeAllPatients);
+    }
+
+    @GetMapping("/page/{token}")
+    public ResponseEntity<Map<String, Object>> getPatientsPage(
+            @PathVariable String token,
+            @RequestParam(defaultValue = "0") long afterId,
+            @RequestParam(defaultValue = "100") int limit) {
+        if (!service.validateToken(token, "admin").equals("valid")) {
+            return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+        }
+        return new ResponseEntity<>(service.getPatientsPage(afterId, limit), HttpStatus.OK);
     }
 
     @PostMapping
@@ -67,10 +86,15 @@ public class PatientController {
         return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
+    @RateLimited("login")
     @PostMapping("/login")
     public ResponseEntity<Map<String, String>> login(@RequestBody Login login) {
         Map<String, String> response = new HashMap<>();
         String result = service.validatePatientLogin(login);
+        if (CredentialVerifier.BUSY.equals(result)) {
+            response.put("message", result);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "1").body(response);
+        }
 
         if (result.startsWith("token:")) {
             response.put("token", result.substring("token:".length()));
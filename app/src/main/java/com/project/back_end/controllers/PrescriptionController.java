@@ -1,18 +1,24 @@
 package com.project.back_end.controllers;
 
+import com.project.back_end.config.MongoBound;
 import com.project.back_end.models.Prescription;
 import com.project.back_end.services.AppointmentService;
 import com.project.back_end.services.PrescriptionService;
 import com.project.back_end.services.Service;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
+import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.Map;
 
 @RestController
+@MongoBound
 @RequestMapping("${api.path}prescription")
 public class PrescriptionController {
 
@@ -51,6 +57,30 @@ public class PrescriptionController {
         return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
+    // Bulk ingest of a JSON array or NDJSON stream; reports per-item failures
+    @PostMapping(value = "/bulk/{token}", consumes = {MediaType.APPLICATION_JSON_VALUE,
+            MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<Map<String, Object>> ingestPrescriptions(InputStream body, @PathVariable String token) {
+        if (!service.validateToken(token, "doctor").equals("valid")) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", "Unauthorized");
+            return new ResponseEntity<>(response, HttpStatus.UNAUTHORIZED);
+        }
+        return new ResponseEntity<>(prescriptionService.ingestPrescriptions(body), HttpStatus.OK);
+    }
+
+    // All of a doctor's prescriptions for one day, keyed by appointment id
+    @GetMapping("/doctor/{date}/{token}")
+    public ResponseEntity<Map<Long, Prescription>> getPrescriptionsForDay(
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @PathVariable String token) {
+        Map<Long, Prescription> prescriptions = prescriptionService.getPrescriptionsForDay(token, date);
+        if (prescriptions == null) {
+            return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+        }
+        return new ResponseEntity<>(prescriptions, HttpStatus.OK);
+    }
+
     @GetMapping("/{appointmentId}/{token}")
     public ResponseEntity<Prescription> getPrescription(@PathVariable Long appointmentId, @PathVariable String token) {
         if (!service.validateToken(token, "doctor").equals("valid")) {
@@ -0,0 +1,21 @@
+package com.project.back_end.controllers;
+
+import com.project.back_end.config.BulkheadFullException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.Map;
+
+// Same answer BulkheadInterceptor gives when a request cannot be admitted
+@RestControllerAdvice
+public class ServerBusy {
+
+    @ExceptionHandler(BulkheadFullException.class)
+    public ResponseEntity<Map<String, String>> handleBulkheadFull(BulkheadFullException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "1")
+                .body(Map.of("message", "Server busy, please retry"));
+    }
+}
@@ -2,10 +2,15 @@ package com.project.back_end.models;
 
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.project.back_end.config.EntityCacheConfig;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = EntityCacheConfig.ADMIN_REGION)
 @Table(name = "admins")
 public class Admin {
 
@@ -9,10 +9,19 @@ import java.time.LocalDate;
 import java.time.LocalTime;
 import jakarta.persistence.Transient;
 
+// The slot constraint doubles as the index for a doctor's appointments in a
+// date range. Patient listings filter by status and sort by date, and the admin
+// list pages through (appointment_date, id); QueryPlanTest keeps these in use.
 @Entity
-@Table(name = "appointments")
+@Table(name = "appointments", uniqueConstraints = @UniqueConstraint(name = Appointment.SLOT_CONSTRAINT, columnNames = {
+        "doctor_id", "appointment_date" }), indexes = {
+                @Index(name = "idx_appointment_patient_status_date", columnList = "patient_id, status, appointment_date"),
+                @Index(name = "idx_appointment_date_id", columnList = "appointment_date, id") })
 public class Appointment {
 
+    // Database-level guard against two bookings of the same doctor slot
+    public static final String SLOT_CONSTRAINT = "uk_appointment_doctor_slot";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private long id;
@@ -1,11 +1,20 @@
 package com.project.back_end.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.project.back_end.config.EntityCacheConfig;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.TreeSet;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = EntityCacheConfig.DOCTOR_REGION)
 @Table(name = "doctor")
 
 public class Doctor {
@@ -39,10 +48,10 @@ public class Doctor {
     @Pattern(regexp = "^[0-9]{10}$")
     private String phone;
 
-    @ElementCollection(fetch = FetchType.EAGER)
-    @CollectionTable(name = "doctor_available_times", joinColumns = @JoinColumn(name = "doctor_id"))
-    @Column(name = "time_slot")
-    private List<String> availableTimes;
+    // Sorted and free of duplicates; exposed to the API as availableTimes strings
+    @Convert(converter = TimeSlotsConverter.class)
+    @Column(name = "available_slots", length = 1024)
+    private List<TimeSlot> slots = Collections.emptyList();
 
     public Doctor() {
     }
@@ -54,7 +63,7 @@ public class Doctor {
         this.email = email;
         this.password = password;
         this.phone = phone;
-        this.availableTimes = availableTimes;
+        setAvailableTimes(availableTimes);
     }
 
     public long getId() {
@@ -105,12 +114,42 @@ public class Doctor {
         this.phone = phone;
     }
 
+    @JsonIgnore
+    public List<TimeSlot> getSlots() {
+        return slots;
+    }
+
+    public void setSlots(List<TimeSlot> slots) {
+        this.slots = slots != null ? Collections.unmodifiableList(new ArrayList<>(new TreeSet<>(slots)))
+                : Collections.emptyList();
+    }
+
+    // Canonical "HH:mm - HH:mm" strings, in start-time order
     public List<String> getAvailableTimes() {
-        return availableTimes;
+        List<String> times = new ArrayList<>(slots.size());
+        for (TimeSlot slot : slots) {
+            times.add(slot.toString());
+        }
+        return times;
     }
 
+    // Rejects text that is not a slot rather than silently dropping it
     public void setAvailableTimes(List<String> availableTimes) {
-        this.availableTimes = availableTimes;
+        setSlots(parseSlots(availableTimes));
+    }
+
+    public static List<TimeSlot> parseSlots(List<String> times) {
+        List<TimeSlot> parsed = new ArrayList<>();
+        if (times != null) {
+            for (String time : times) {
+                TimeSlot slot = TimeSlot.parse(time);
+                if (slot == null) {
+                    throw new IllegalArgumentException("Invalid time slot: " + time);
+                }
+                parsed.add(slot);
+            }
+        }
+        return parsed;
     }
 
 }
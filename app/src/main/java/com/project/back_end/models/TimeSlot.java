@@ -0,0 +1,100 @@
+package com.project.back_end.models;
+
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+
+// A bookable slot as a pair of minute-of-day offsets. The canonical text form,
+// used in the JSON API, is "HH:mm - HH:mm"; parse() also accepts the older
+// "HH:mm-HH:mm" spelling and a bare start time, which means a one-hour slot
+// (the length of an appointment).
+public final class TimeSlot implements Comparable<TimeSlot> {
+
+    public static final int MINUTES_PER_DAY = 24 * 60;
+    private static final int DEFAULT_LENGTH = 60;
+
+    private final int startMinute;
+    private final int endMinute;
+
+    public TimeSlot(int startMinute, int endMinute) {
+        if (startMinute < 0 || endMinute > MINUTES_PER_DAY || endMinute <= startMinute) {
+            throw new IllegalArgumentException("Invalid slot " + startMinute + "-" + endMinute);
+        }
+        this.startMinute = startMinute;
+        this.endMinute = endMinute;
+    }
+
+    // Returns null if the text is not a slot
+    public static TimeSlot parse(String text) {
+        if (text == null) {
+            return null;
+        }
+        int dash = text.indexOf('-');
+        int start = minuteOf(dash >= 0 ? text.substring(0, dash) : text);
+        if (start < 0) {
+            return null;
+        }
+        int end = dash >= 0 ? minuteOf(text.substring(dash + 1)) : Math.min(start + DEFAULT_LENGTH, MINUTES_PER_DAY);
+        if (end == 0) {
+            // "23:00 - 00:00" ends at midnight
+            end = MINUTES_PER_DAY;
+        }
+        if (end <= start) {
+            return null;
+        }
+        return new TimeSlot(start, end);
+    }
+
+    private static int minuteOf(String time) {
+        String trimmed = time.trim();
+        if (trimmed.equals("24:00")) {
+            // Written by earlier versions of toString() for slots ending at midnight
+            return MINUTES_PER_DAY;
+        }
+        try {
+            LocalTime parsed = LocalTime.parse(trimmed);
+            if (parsed.getSecond() != 0 || parsed.getNano() != 0) {
+                return -1;
+            }
+            return parsed.getHour() * 60 + parsed.getMinute();
+        } catch (DateTimeParseException e) {
+            return -1;
+        }
+    }
+
+    public int getStartMinute() {
+        return startMinute;
+    }
+
+    public int getEndMinute() {
+        return endMinute;
+    }
+
+    @Override
+    public int compareTo(TimeSlot other) {
+        int byStart = Integer.compare(startMinute, other.startMinute);
+        return byStart != 0 ? byStart : Integer.compare(endMinute, other.endMinute);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof TimeSlot && ((TimeSlot) other).startMinute == startMinute
+                && ((TimeSlot) other).endMinute == endMinute;
+    }
+
+    @Override
+    public int hashCode() {
+        return startMinute * MINUTES_PER_DAY + endMinute;
+    }
+
+    @Override
+    public String toString() {
+        return format(startMinute) + " - " + format(endMinute);
+    }
+
+    // A slot ending at midnight is written "00:00", as it always was
+    private static String format(int minute) {
+        int hour = minute % MINUTES_PER_DAY / 60;
+        int rest = minute % 60;
+        return (hour < 10 ? "0" : "") + hour + ":" + (rest < 10 ? "0" : "") + rest;
+    }
+}
@@ -0,0 +1,44 @@
+package com.project.back_end.models;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Stores a doctor's slots in one VARBINARY column, four bytes per slot (start
+// and end minute as big-endian shorts), so loading a doctor reads no extra rows.
+// A NULL column means the row predates the column (see SlotMigration).
+@Converter
+public class TimeSlotsConverter implements AttributeConverter<List<TimeSlot>, byte[]> {
+
+    static final int BYTES_PER_SLOT = 4;
+
+    @Override
+    public byte[] convertToDatabaseColumn(List<TimeSlot> slots) {
+        if (slots == null) {
+            return new byte[0];
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(slots.size() * BYTES_PER_SLOT);
+        for (TimeSlot slot : slots) {
+            buffer.putShort((short) slot.getStartMinute());
+            buffer.putShort((short) slot.getEndMinute());
+        }
+        return buffer.array();
+    }
+
+    @Override
+    public List<TimeSlot> convertToEntityAttribute(byte[] column) {
+        if (column == null || column.length == 0) {
+            return Collections.emptyList();
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(column);
+        List<TimeSlot> slots = new ArrayList<>(column.length / BYTES_PER_SLOT);
+        while (buffer.remaining() >= BYTES_PER_SLOT) {
+            slots.add(new TimeSlot(buffer.getShort(), buffer.getShort()));
+        }
+        return Collections.unmodifiableList(slots);
+    }
+}
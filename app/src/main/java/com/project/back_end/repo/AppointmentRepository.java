@@ -1,6 +1,9 @@
 package com.project.back_end.repo;
 
+import com.project.back_end.DTO.AppointmentDTO;
+import com.project.back_end.DTO.DoctorDayEntry;
 import com.project.back_end.models.Appointment;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -9,16 +12,41 @@ import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
 
-      @Query("SELECT a FROM Appointment a LEFT JOIN FETCH a.doctor d LEFT JOIN FETCH d.availableTimes WHERE a.doctor.id = :doctorId AND a.appointmentDate BETWEEN :start AND :end")
+      @Query("SELECT a FROM Appointment a LEFT JOIN FETCH a.doctor d WHERE a.doctor.id = :doctorId AND a.appointmentDate BETWEEN :start AND :end")
       List<Appointment> findByDoctorIdAndAppointmentDateBetween(@Param("doctorId") Long doctorId,
                   @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
 
-      @Query("SELECT a FROM Appointment a LEFT JOIN FETCH a.doctor d LEFT JOIN FETCH d.availableTimes LEFT JOIN FETCH a.patient p WHERE a.doctor.id = :doctorId AND LOWER(p.name) LIKE LOWER(CONCAT('%', :patientName, '%')) AND a.appointmentDate BETWEEN :start AND :end")
+      // Columns for the doctor's day view only; no entity graphs are loaded
+      @Query("SELECT new com.project.back_end.DTO.DoctorDayEntry(a.id, a.appointmentDate, a.status, p.id, p.name,"
+                  + " p.phone, p.email) FROM Appointment a JOIN a.patient p"
+                  + " WHERE a.doctor.id = :doctorId AND a.appointmentDate BETWEEN :start AND :end"
+                  + " ORDER BY a.appointmentDate")
+      List<DoctorDayEntry> findDayEntries(@Param("doctorId") Long doctorId, @Param("start") LocalDateTime start,
+                  @Param("end") LocalDateTime end);
+
+      @Query("SELECT a.id FROM Appointment a WHERE a.doctor.id = :doctorId ORDER BY a.id")
+      List<Long> findIdsByDoctorId(@Param("doctorId") Long doctorId);
+
+      @Query("SELECT a.id FROM Appointment a WHERE a.doctor.id = :doctorId AND a.appointmentDate BETWEEN :start AND :end ORDER BY a.appointmentDate")
+      List<Long> findIdsByDoctorIdAndAppointmentDateBetween(@Param("doctorId") Long doctorId,
+                  @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+      @Query("SELECT COUNT(a) > 0 FROM Appointment a WHERE a.doctor.id = :doctorId AND a.appointmentDate = :date")
+      boolean existsByDoctorIdAndAppointmentDate(@Param("doctorId") Long doctorId, @Param("date") LocalDateTime date);
+
+      @Query("SELECT a.appointmentDate FROM Appointment a WHERE a.doctor.id = :doctorId AND a.appointmentDate BETWEEN :start AND :end")
+      List<LocalDateTime> findAppointmentDatesByDoctorIdBetween(@Param("doctorId") Long doctorId,
+                  @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+      // The (doctor_id, appointment_date) key narrows this to one doctor's day,
+      // so the LIKE only checks the names of that day's patients
+      @Query("SELECT a FROM Appointment a LEFT JOIN FETCH a.doctor d LEFT JOIN FETCH a.patient p WHERE a.doctor.id = :doctorId AND LOWER(p.name) LIKE LOWER(CONCAT('%', :patientName, '%')) AND a.appointmentDate BETWEEN :start AND :end")
       List<Appointment> findByDoctorIdAndPatient_NameContainingIgnoreCaseAndAppointmentDateBetween(
                   @Param("doctorId") Long doctorId, @Param("patientName") String patientName,
                   @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
@@ -28,20 +56,61 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Long>
       @Query("DELETE FROM Appointment a WHERE a.doctor.id = :doctorId")
       void deleteAllByDoctorId(@Param("doctorId") Long doctorId);
 
-      List<Appointment> findByPatientId(Long patientId);
+      // Patient listings select straight into AppointmentDTO: one statement, only
+      // the columns the DTO needs, and no Doctor/Patient entities (or the doctor's
+      // eagerly fetched slots) are loaded. Status maps PENDING to 0, anything else to 1.
+      String PATIENT_DTO_SELECT = "SELECT new com.project.back_end.DTO.AppointmentDTO(a.id, d.id, d.name, p.id, p.name,"
+                  + " p.email, p.phone, p.address, a.appointmentDate,"
+                  + " CASE WHEN UPPER(a.status) = 'PENDING' THEN 0 ELSE 1 END)"
+                  + " FROM Appointment a JOIN a.doctor d JOIN a.patient p";
+
+      @Query(PATIENT_DTO_SELECT + " WHERE p.id = :patientId")
+      List<AppointmentDTO> findDtoByPatientId(@Param("patientId") Long patientId);
 
-      List<Appointment> findByPatient_IdAndStatusOrderByAppointmentDateAsc(Long patientId, String status);
+      @Query(PATIENT_DTO_SELECT + " WHERE p.id = :patientId AND a.status = :status ORDER BY a.appointmentDate ASC")
+      List<AppointmentDTO> findDtoByPatientIdAndStatus(@Param("patientId") Long patientId,
+                  @Param("status") String status);
 
-      @Query("SELECT a FROM Appointment a WHERE a.patient.id = :patientId AND LOWER(a.doctor.name) LIKE LOWER(CONCAT('%', :doctorName, '%'))")
-      List<Appointment> filterByDoctorNameAndPatientId(@Param("doctorName") String doctorName,
+      // Doctor name filters are resolved to ids by DoctorDirectoryIndex first
+      @Query(PATIENT_DTO_SELECT + " WHERE p.id = :patientId AND d.id IN :doctorIds")
+      List<AppointmentDTO> filterDtoByDoctorIdsAndPatientId(@Param("doctorIds") Collection<Long> doctorIds,
                   @Param("patientId") Long patientId);
 
-      @Query("SELECT a FROM Appointment a WHERE a.patient.id = :patientId AND a.status = :status AND LOWER(a.doctor.name) LIKE LOWER(CONCAT('%', :doctorName, '%'))")
-      List<Appointment> filterByDoctorNameAndPatientIdAndStatus(@Param("doctorName") String doctorName,
+      @Query(PATIENT_DTO_SELECT + " WHERE p.id = :patientId AND a.status = :status AND d.id IN :doctorIds")
+      List<AppointmentDTO> filterDtoByDoctorIdsAndPatientIdAndStatus(@Param("doctorIds") Collection<Long> doctorIds,
                   @Param("patientId") Long patientId, @Param("status") String status);
 
+      @Query("SELECT a.status FROM Appointment a WHERE a.id = :id")
+      String findStatusById(@Param("id") long id);
+
+      // Rows of [status, count]
+      @Query("SELECT a.status, COUNT(a) FROM Appointment a GROUP BY a.status")
+      List<Object[]> countGroupedByStatus();
+
+      @Query("SELECT a.status, COUNT(a) FROM Appointment a WHERE a.doctor.id = :doctorId GROUP BY a.status")
+      List<Object[]> countGroupedByStatusForDoctor(@Param("doctorId") Long doctorId);
+
       @Modifying
       @Transactional
       @Query("UPDATE Appointment a SET a.status = :status WHERE a.id = :id")
       void updateStatus(@Param("status") String status, @Param("id") long id);
+
+      // Keyset pagination: callers pass the last id (and date) they have seen
+      // instead of an offset, so every page is an index range scan.
+      @Query("SELECT a FROM Appointment a JOIN FETCH a.doctor JOIN FETCH a.patient WHERE a.id > :afterId ORDER BY a.id")
+      List<Appointment> findPageAfterId(@Param("afterId") long afterId, Limit limit);
+
+      // Date order pages pick their ids from the (appointment_date, id) index
+      // alone, then fetch those rows with their doctor and patient. Joined in
+      // one statement the planner sorts the whole join instead. The leading
+      // >= keeps the cursor condition a range on the index.
+      @Query("SELECT a.id FROM Appointment a ORDER BY a.appointmentDate, a.id")
+      List<Long> findFirstIdPageByDate(Limit limit);
+
+      @Query("SELECT a.id FROM Appointment a WHERE a.appointmentDate >= :afterDate AND (a.appointmentDate > :afterDate OR a.id > :afterId) ORDER BY a.appointmentDate, a.id")
+      List<Long> findIdPageAfterDate(@Param("afterDate") LocalDateTime afterDate, @Param("afterId") long afterId,
+                  Limit limit);
+
+      @Query("SELECT a FROM Appointment a JOIN FETCH a.doctor JOIN FETCH a.patient WHERE a.id IN :ids ORDER BY a.appointmentDate, a.id")
+      List<Appointment> findAllByIdInOrderByDate(@Param("ids") Collection<Long> ids);
 }
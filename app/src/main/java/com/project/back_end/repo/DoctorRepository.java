@@ -1,36 +1,49 @@
 package com.project.back_end.repo;
 
 import com.project.back_end.models.Doctor;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface DoctorRepository extends JpaRepository<Doctor, Long> {
 
-   @Query("SELECT d FROM Doctor d LEFT JOIN FETCH d.availableTimes WHERE d.email = :email")
+   // Logins and legacy token resolution; answered from the query and entity
+   // caches until a doctor row is written
+   @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+   @Query("SELECT d FROM Doctor d WHERE d.email = :email")
    Doctor findByEmail(@Param("email") String email);
 
-   @Query("SELECT d FROM Doctor d LEFT JOIN FETCH d.availableTimes WHERE LOWER(d.name) LIKE LOWER(CONCAT('%', :name, '%'))")
-   List<Doctor> findByNameContainingIgnoreCase(@Param("name") String name);
+   @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+   @Query("SELECT d.id FROM Doctor d WHERE d.email = :email")
+   Long findIdByEmail(@Param("email") String email);
 
-   @Query("SELECT d FROM Doctor d LEFT JOIN FETCH d.availableTimes WHERE LOWER(d.speciality) LIKE LOWER(CONCAT('%', :speciality, '%'))")
+   @Query("SELECT d FROM Doctor d WHERE LOWER(d.speciality) LIKE LOWER(CONCAT('%', :speciality, '%'))")
    List<Doctor> findBySpecialityContainingIgnoreCase(@Param("speciality") String speciality);
 
-   @Query("SELECT d FROM Doctor d LEFT JOIN FETCH d.availableTimes WHERE LOWER(d.name) LIKE LOWER(CONCAT('%', :name, '%')) AND LOWER(d.speciality) LIKE LOWER(CONCAT('%', :speciality, '%'))")
+   @Query("SELECT d FROM Doctor d WHERE LOWER(d.name) LIKE LOWER(CONCAT('%', :name, '%')) AND LOWER(d.speciality) LIKE LOWER(CONCAT('%', :speciality, '%'))")
    List<Doctor> findByNameAndSpeciality(@Param("name") String name, @Param("speciality") String speciazty);
 
-   @Query("SELECT DISTINCT d FROM Doctor d LEFT JOIN FETCH d.availableTimes")
+   // Slots live in a column of the doctor row, so no join is needed for them
+   @Query("SELECT d FROM Doctor d ORDER BY d.id")
    List<Doctor> findAllWithAvailableTimes();
 
-   @org.springframework.data.jpa.repository.Modifying
-   @Query(value = "DELETE FROM doctor_available_times WHERE doctor_id = :doctorId", nativeQuery = true)
-   void deleteAvailableTimes(@Param("doctorId") Long doctorId);
+   @Query("SELECT d.id FROM Doctor d WHERE d.id > :afterId ORDER BY d.id")
+   List<Long> findIdPageAfterId(@Param("afterId") long afterId, Limit limit);
 
-   @org.springframework.data.jpa.repository.Modifying
-   @Query(value = "INSERT INTO doctor_available_times (doctor_id, time_slot) VALUES (:doctorId, :timeSlot)", nativeQuery = true)
-   void insertAvailableTime(@Param("doctorId") Long doctorId, @Param("timeSlot") String timeSlot);
-}
\ No newline at end of file
+   // Always read from the database: the entity cache could hand back slots
+   // changed through another instance since it was filled
+   @Query("SELECT d FROM Doctor d WHERE d.id = :id")
+   Doctor findWithAvailableTimesById(@Param("id") long id);
+
+   @Query("SELECT d FROM Doctor d WHERE d.id IN :ids ORDER BY d.id")
+   List<Doctor> findAllWithAvailableTimesByIdIn(@Param("ids") Collection<Long> ids);
+}
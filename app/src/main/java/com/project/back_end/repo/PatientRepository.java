@@ -1,13 +1,31 @@
 package com.project.back_end.repo;
 
 import com.project.back_end.models.Patient;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface PatientRepository extends JpaRepository<Patient, Long> {
 
+    // Logins and legacy token resolution; answered from the query and entity
+    // caches until a patient row is written
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Patient findByEmail(String email);
 
     Patient findByPhone(String phone);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT p.id FROM Patient p WHERE p.email = :email")
+    Long findIdByEmail(@Param("email") String email);
+
+    @Query("SELECT p FROM Patient p WHERE p.id > :afterId ORDER BY p.id")
+    List<Patient> findPageAfterId(@Param("afterId") long afterId, Limit limit);
 }
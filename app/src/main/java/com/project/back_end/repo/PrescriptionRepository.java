@@ -4,8 +4,14 @@ import com.project.back_end.models.Prescription;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface PrescriptionRepository extends MongoRepository<Prescription, String> {
 
     Prescription findByAppointmentId(Long appointmentId);
+
+    // One $in query over the appointmentId index
+    List<Prescription> findByAppointmentIdIn(Collection<Long> appointmentIds);
 }
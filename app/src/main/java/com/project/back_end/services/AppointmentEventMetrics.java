@@ -0,0 +1,36 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.OutboxEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Counts committed appointment events by type (appointment.events) and times
+// how long each waited in the outbox (outbox.delivery.lag). Each event reaches
+// one instance only, which is what a counter summed across instances wants.
+// Recorded after the relay's transaction commits, so a batch that is rolled
+// back and redelivered is counted once.
+@Component
+public class AppointmentEventMetrics implements OutboxListener {
+
+    private final MeterRegistry meterRegistry;
+
+    public AppointmentEventMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void onEvents(List<OutboxEvent> events) {
+        TransactionHooks.afterCommit(() -> {
+            LocalDateTime now = LocalDateTime.now();
+            for (OutboxEvent event : events) {
+                meterRegistry.counter("appointment.events", "type", event.getType()).increment();
+                meterRegistry.timer("outbox.delivery.lag", "type", event.getType())
+                        .record(Duration.between(event.getCreatedAt(), now));
+            }
+        });
+    }
+}
@@ -0,0 +1,96 @@
+package com.project.back_end.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.OutboxEvent;
+import com.project.back_end.repo.OutboxEventRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Writes appointment events to the outbox. Every method joins the caller's
+// transaction (and refuses to run without one), so an event exists exactly when
+// the change it describes was committed. OutboxRelay hands them to the
+// OutboxListeners (AppointmentEventMetrics) and removes them.
+@Component
+public class AppointmentOutbox {
+
+    public static final String BOOKED = "APPOINTMENT_BOOKED";
+    public static final String UPDATED = "APPOINTMENT_UPDATED";
+    public static final String CANCELLED = "APPOINTMENT_CANCELLED";
+    public static final String STATUS_CHANGED = "APPOINTMENT_STATUS_CHANGED";
+    public static final String DOCTOR_DELETED = "DOCTOR_DELETED";
+
+    private final OutboxEventRepository outboxRepo;
+    private final ObjectMapper objectMapper;
+
+    public AppointmentOutbox(OutboxEventRepository outboxRepo, ObjectMapper objectMapper) {
+        this.outboxRepo = outboxRepo;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void booked(Appointment appointment) {
+        record(BOOKED, appointment.getId(), describe(appointment));
+    }
+
+    // Reschedules and other edits made through updateAppointment
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void updated(Appointment appointment, String previousStatus) {
+        Map<String, Object> payload = describe(appointment);
+        payload.put("previousStatus", previousStatus);
+        record(UPDATED, appointment.getId(), payload);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void cancelled(Appointment appointment) {
+        record(CANCELLED, appointment.getId(), describe(appointment));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void statusChanged(long appointmentId, String from, String to) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("appointmentId", appointmentId);
+        payload.put("from", from);
+        payload.put("to", to);
+        record(STATUS_CHANGED, appointmentId, payload);
+    }
+
+    // One event for the whole cascade rather than one per removed appointment.
+    // statusCounts are [status, count] rows of the removed appointments.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void doctorDeleted(long doctorId, List<Long> appointmentIds, List<Object[]> statusCounts) {
+        Map<String, Object> removed = new LinkedHashMap<>();
+        for (Object[] row : statusCounts) {
+            removed.put(String.valueOf(row[0]), ((Number) row[1]).longValue());
+        }
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("doctorId", doctorId);
+        payload.put("appointmentIds", appointmentIds);
+        payload.put("statusCounts", removed);
+        record(DOCTOR_DELETED, doctorId, payload);
+    }
+
+    private void record(String type, long aggregateId, Map<String, Object> payload) {
+        try {
+            outboxRepo.save(new OutboxEvent(type, aggregateId, objectMapper.writeValueAsString(payload)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize " + type + " event", e);
+        }
+    }
+
+    private static Map<String, Object> describe(Appointment appointment) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("appointmentId", appointment.getId());
+        payload.put("doctorId", appointment.getDoctor() != null ? appointment.getDoctor().getId() : null);
+        payload.put("patientId", appointment.getPatient() != null ? appointment.getPatient().getId() : null);
+        payload.put("appointmentDate", String.valueOf(appointment.getAppointmentDate()));
+        payload.put("status", appointment.getStatus());
+        return payload;
+    }
+}
@@ -4,68 +4,221 @@ import com.project.back_end.models.Appointment;
 import com.project.back_end.repo.AppointmentRepository;
 import com.project.back_end.repo.DoctorRepository;
 import com.project.back_end.repo.PatientRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.Optional;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 
 @Service
 public class AppointmentService {
 
+    private static final Logger log = LoggerFactory.getLogger(AppointmentService.class);
+
+    // saveAppointment and updateAppointment results
+    public static final int BOOKED = 1;
+    public static final int SLOT_TAKEN = 0;
+    public static final int INVALID = -1;
+    public static final int BUSY = -2;
+    public static final int FAILED = -3;
+    // updateAppointment only
+    public static final int NOT_FOUND = -4;
+
+    // Bookings for the same doctor and day share a lock stripe; unrelated
+    // doctors and days rarely collide.
+    private static final int LOCK_STRIPES = 256;
+
     private final AppointmentRepository appointmentRepo;
     private final DoctorRepository doctorRepo;
     private final PatientRepository patientRepo;
+    private final AvailabilityIndex availabilityIndex;
+    private final DashboardCounters dashboardCounters;
+    private final AppointmentOutbox outbox;
+    private final TransactionTemplate transactionTemplate;
+    private final long lockTimeoutMillis;
+    private final ReentrantLock[] slotLocks = new ReentrantLock[LOCK_STRIPES];
 
     @Autowired
     public AppointmentService(AppointmentRepository appointmentRepo, DoctorRepository doctorRepo,
-            PatientRepository patientRepo) {
+            PatientRepository patientRepo, AvailabilityIndex availabilityIndex, DashboardCounters dashboardCounters,
+            AppointmentOutbox outbox, PlatformTransactionManager transactionManager,
+            @Value("${booking.lock-timeout-ms:2000}") long lockTimeoutMillis) {
         this.appointmentRepo = appointmentRepo;
         this.doctorRepo = doctorRepo;
         this.patientRepo = patientRepo;
+        this.availabilityIndex = availabilityIndex;
+        this.dashboardCounters = dashboardCounters;
+        this.outbox = outbox;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.lockTimeoutMillis = lockTimeoutMillis;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            slotLocks[i] = new ReentrantLock();
+        }
     }
 
-    @Transactional
+    // Books a slot at most once. A slot the availability index has seen booked
+    // is refused without taking the lock once one indexed lookup confirms the
+    // row, since the bit may predate a cancellation made through another
+    // instance. Otherwise the insert runs in its own transaction under the
+    // doctor/day lock, so it has committed (and the index knows about it) before
+    // the next request for that slot looks, and the unique constraint on
+    // (doctor_id, appointment_date) decides races with other instances.
+    // Deliberately not @Transactional: the lock must outlive the commit.
     public int saveAppointment(Appointment appointment) {
-        try {
-            // Basic validation
-            if (appointment.getDoctor() == null || appointment.getPatient() == null)
-                return -1;
+        if (appointment.getDoctor() == null || appointment.getPatient() == null
+                || appointment.getAppointmentDate() == null)
+            return INVALID;
+        long doctorId = appointment.getDoctor().getId();
+        LocalDateTime date = appointment.getAppointmentDate();
+        if (availabilityIndex.isBooked(doctorId, date)
+                && appointmentRepo.existsByDoctorIdAndAppointmentDate(doctorId, date))
+            return SLOT_TAKEN;
 
-            // Check if slot logic here or allow overbooking for now?
-            // "validateAppointment" in Service.java does the checking. We assume controller
-            // calls that first.
-            // Or we do it here.
-
-            appointmentRepo.save(appointment);
-            return 1;
+        ReentrantLock lock = lockFor(doctorId, date);
+        try {
+            if (!lock.tryLock(lockTimeoutMillis, TimeUnit.MILLISECONDS))
+                return BUSY;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return BUSY;
+        }
+        try {
+            if (slotTaken(doctorId, date))
+                return SLOT_TAKEN;
+            transactionTemplate.executeWithoutResult(status -> outbox.booked(appointmentRepo.save(appointment)));
+            availabilityIndex.markBooked(doctorId, date);
+            dashboardCounters.appointmentAdded(appointment.getStatus());
+            return BOOKED;
+        } catch (DataIntegrityViolationException e) {
+            if (isSlotConflict(e)) {
+                // Booked through another instance; remember it for the next caller
+                availabilityIndex.markBooked(doctorId, date);
+                return SLOT_TAKEN;
+            }
+            log.error("Appointment violates a constraint other than the slot key", e);
+            return FAILED;
         } catch (Exception e) {
-            e.printStackTrace();
-            return 0;
+            log.error("Failed to book appointment", e);
+            return FAILED;
+        } finally {
+            lock.unlock();
         }
     }
 
-    @Transactional
+    // Same results as saveAppointment, plus NOT_FOUND. A move to another slot
+    // takes the target slot's lock and checks it like a booking does; the old
+    // slot is released once the move has committed.
     public int updateAppointment(Appointment appointment) {
-        if (!appointmentRepo.existsById(appointment.getId()))
-            return -1;
-        appointmentRepo.save(appointment);
-        return 1;
+        if (appointment.getDoctor() == null || appointment.getAppointmentDate() == null)
+            return INVALID;
+        long doctorId = appointment.getDoctor().getId();
+        LocalDateTime date = appointment.getAppointmentDate();
+
+        ReentrantLock lock = lockFor(doctorId, date);
+        try {
+            if (!lock.tryLock(lockTimeoutMillis, TimeUnit.MILLISECONDS))
+                return BUSY;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return BUSY;
+        }
+        try {
+            Integer result = transactionTemplate.execute(status -> {
+                Appointment existing = appointmentRepo.findById(appointment.getId()).orElse(null);
+                if (existing == null)
+                    return NOT_FOUND;
+                // Capture the old slot before save() merges the new state into the same instance
+                long oldDoctorId = existing.getDoctor().getId();
+                LocalDateTime oldDate = existing.getAppointmentDate();
+                String oldStatus = existing.getStatus();
+                boolean moved = oldDoctorId != doctorId || !oldDate.equals(date);
+                if (moved && slotTaken(doctorId, date))
+                    return SLOT_TAKEN;
+
+                // Flushed here so a slot conflict surfaces as a translated exception
+                outbox.updated(appointmentRepo.saveAndFlush(appointment), oldStatus);
+                String newStatus = appointment.getStatus();
+                TransactionHooks.afterCommit(() -> {
+                    dashboardCounters.appointmentStatusChanged(oldStatus, newStatus);
+                    if (moved) {
+                        availabilityIndex.release(oldDoctorId, oldDate);
+                        availabilityIndex.markBooked(doctorId, date);
+                    }
+                });
+                return BOOKED;
+            });
+            return result != null ? result : FAILED;
+        } catch (DataIntegrityViolationException e) {
+            if (isSlotConflict(e)) {
+                availabilityIndex.markBooked(doctorId, date);
+                return SLOT_TAKEN;
+            }
+            log.error("Appointment update violates a constraint other than the slot key", e);
+            return FAILED;
+        } catch (Exception e) {
+            log.error("Failed to update appointment {}", appointment.getId(), e);
+            return FAILED;
+        } finally {
+            lock.unlock();
+        }
     }
 
     @Transactional
     public int cancelAppointment(Long id) {
         try {
-            if (!appointmentRepo.existsById(id))
+            Appointment existing = appointmentRepo.findById(id).orElse(null);
+            if (existing == null)
                 return -1;
-            appointmentRepo.deleteById(id);
+            long doctorId = existing.getDoctor().getId();
+            LocalDateTime date = existing.getAppointmentDate();
+            String status = existing.getStatus();
+            appointmentRepo.delete(existing);
+            outbox.cancelled(existing);
+            TransactionHooks.afterCommit(() -> {
+                availabilityIndex.release(doctorId, date);
+                dashboardCounters.appointmentRemoved(status);
+            });
             return 1;
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Failed to cancel appointment {}", id, e);
+            // Roll back quietly rather than failing the commit with UnexpectedRollbackException
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             return 0;
         }
     }
 
+    // Call under the slot's lock
+    private boolean slotTaken(long doctorId, LocalDateTime date) {
+        if (!availabilityIndex.isBooked(doctorId, date))
+            return false;
+        if (appointmentRepo.existsByDoctorIdAndAppointmentDate(doctorId, date))
+            return true;
+        // Cancelled through another instance since the index last loaded the day
+        availabilityIndex.release(doctorId, date);
+        return false;
+    }
+
+    private ReentrantLock lockFor(long doctorId, LocalDateTime date) {
+        long key = doctorId * 31 + date.toLocalDate().toEpochDay();
+        int hash = Long.hashCode(key * 0x9E3779B97F4A7C15L);
+        return slotLocks[(hash ^ (hash >>> 16)) & (LOCK_STRIPES - 1)];
+    }
+
+    private static boolean isSlotConflict(DataIntegrityViolationException e) {
+        String message = e.getMostSpecificCause().getMessage();
+        return message != null && message.toLowerCase(Locale.ROOT).contains(Appointment.SLOT_CONSTRAINT);
+    }
+
     @Transactional(readOnly = true)
     public Appointment getAppointment(Long id) {
         return appointmentRepo.findById(id).orElse(null);
@@ -0,0 +1,356 @@
+package com.project.back_end.services;
+
+import com.project.back_end.config.Bulkhead;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.TimeSlot;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.DoctorRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory availability index. Each doctor's configured slots are kept as a
+ * minute-of-day bitmap, and the booked start times for a (doctor, date) pair
+ * as a second bitmap, so an availability answer is a handful of bit tests.
+ *
+ * Entries are loaded lazily from the database on first use and afterwards
+ * kept current by the write paths in AppointmentService and DoctorService.
+ * Changes made through another instance are not seen by those paths, so a
+ * doctor's slots are read again once they are availability.slots-max-age-ms
+ * old and a (doctor, date) entry once it is availability.bookings-ttl-ms old;
+ * a booked bit is a hint that AppointmentService confirms against the
+ * database before refusing a slot. A doctor id that matches no row is
+ * remembered for availability.missing-doctor-ttl-ms. Only one request reads a
+ * given doctor's slots or day at a time, so an expiry costs one query however
+ * many requests are looking at it. Each read takes a JDBC permit unless the
+ * request already holds one, since availability is served by an @InMemory
+ * handler.
+ */
+@Component
+public class AvailabilityIndex {
+
+    private static final int WORDS = (SlotTimes.MINUTES_PER_DAY + 63) / 64;
+    // Unknown ids are remembered only briefly, so the set is simply dropped
+    // rather than trimmed if someone walks through a lot of them
+    private static final int MAX_MISSING = 10_000;
+
+    private final DoctorRepository doctorRepo;
+    private final AppointmentRepository appointmentRepo;
+    private final Bulkhead jdbc;
+    private final long bookingsTtlNanos;
+    private final long slotsMaxAgeNanos;
+    private final long missingTtlNanos;
+
+    private final Map<Long, SlotConfig> slotConfigs = new ConcurrentHashMap<>();
+    // Doctor ids found not to exist, with when that was read
+    private final Map<Long, Long> missing = new ConcurrentHashMap<>();
+    // Doctors whose slots are being read from the database; guarded by its own monitor
+    private final Set<Long> slotLoads = new HashSet<>();
+    private final Map<Long, DoctorBookings> bookings = new ConcurrentHashMap<>();
+    // Bumped on every slot replace/evict so a concurrent lazy load cannot
+    // install configuration that was read before the change.
+    private final AtomicLong slotEpoch = new AtomicLong();
+
+    public AvailabilityIndex(DoctorRepository doctorRepo, AppointmentRepository appointmentRepo,
+            @Qualifier("jdbcBulkhead") Bulkhead jdbc,
+            @Value("${availability.bookings-ttl-ms:5000}") long bookingsTtlMillis,
+            @Value("${availability.slots-max-age-ms:10000}") long slotsMaxAgeMillis,
+            @Value("${availability.missing-doctor-ttl-ms:1000}") long missingTtlMillis) {
+        this.doctorRepo = doctorRepo;
+        this.appointmentRepo = appointmentRepo;
+        this.jdbc = jdbc;
+        this.bookingsTtlNanos = TimeUnit.MILLISECONDS.toNanos(bookingsTtlMillis);
+        this.slotsMaxAgeNanos = TimeUnit.MILLISECONDS.toNanos(slotsMaxAgeMillis);
+        this.missingTtlNanos = TimeUnit.MILLISECONDS.toNanos(missingTtlMillis);
+    }
+
+    // Returns the doctor's configured slots that are not booked on the given
+    // date, in start-time order. Returns null if the doctor does not exist.
+    public List<String> getAvailableSlots(long doctorId, LocalDate date) {
+        SlotConfig config = slotConfig(doctorId);
+        if (config == null) {
+            return null;
+        }
+        long[] booked = bookedOn(doctorId, date);
+        List<String> available = new ArrayList<>(config.slots.length);
+        for (int i = 0; i < config.slots.length; i++) {
+            if (!isSet(booked, config.minutes[i])) {
+                available.add(config.slots[i]);
+            }
+        }
+        return available;
+    }
+
+    // Returns 1 if the time is the start of one of the doctor's configured
+    // slots, 0 if it is not, and -1 if the doctor does not exist.
+    public int isConfiguredSlot(long doctorId, LocalDateTime time) {
+        SlotConfig config = slotConfig(doctorId);
+        if (config == null) {
+            return -1;
+        }
+        int minute = SlotTimes.minuteOf(time);
+        return minute >= 0 && isSet(config.mask, minute) ? 1 : 0;
+    }
+
+    public boolean isBooked(long doctorId, LocalDateTime time) {
+        int minute = SlotTimes.minuteOf(time);
+        return minute >= 0 && isSet(bookedOn(doctorId, time.toLocalDate()), minute);
+    }
+
+    public void markBooked(long doctorId, LocalDateTime time) {
+        DoctorBookings doctor = bookings.computeIfAbsent(doctorId, id -> new DoctorBookings());
+        int minute = SlotTimes.minuteOf(time);
+        synchronized (doctor) {
+            doctor.version++;
+            DayBookings day = doctor.days.get(time.toLocalDate());
+            if (day == null || minute < 0) {
+                // Not loaded yet: the next load will read it from the database.
+                return;
+            }
+            if (isSet(day.bits, minute)) {
+                day.shared = true;
+            }
+            set(day.bits, minute);
+        }
+    }
+
+    public void release(long doctorId, LocalDateTime time) {
+        DoctorBookings doctor = bookings.get(doctorId);
+        if (doctor == null) {
+            return;
+        }
+        int minute = SlotTimes.minuteOf(time);
+        synchronized (doctor) {
+            doctor.version++;
+            LocalDate date = time.toLocalDate();
+            DayBookings day = doctor.days.get(date);
+            if (day == null || minute < 0) {
+                return;
+            }
+            if (day.shared) {
+                // Legacy double bookings exist on this day, so clearing the bit
+                // could free a slot that is still taken. Reload it instead.
+                doctor.days.remove(date);
+            } else {
+                clear(day.bits, minute);
+            }
+        }
+    }
+
+    public void replaceSlots(long doctorId, List<TimeSlot> slots) {
+        slotEpoch.incrementAndGet();
+        missing.remove(doctorId);
+        slotConfigs.put(doctorId, new SlotConfig(slots));
+    }
+
+    public void evictSlots(long doctorId) {
+        slotEpoch.incrementAndGet();
+        slotConfigs.remove(doctorId);
+    }
+
+    public void evictDoctor(long doctorId) {
+        evictSlots(doctorId);
+        bookings.remove(doctorId);
+    }
+
+    // Returns null if the doctor does not exist. One request per doctor reads
+    // expired slots again; the others are answered from the expired ones
+    // meanwhile, or wait if there are none yet.
+    private SlotConfig slotConfig(long doctorId) {
+        SlotConfig config = slotConfigs.get(doctorId);
+        if (config != null && System.nanoTime() - config.loadedAt < slotsMaxAgeNanos) {
+            return config;
+        }
+        if (config == null && isMissing(doctorId)) {
+            return null;
+        }
+        long epoch;
+        synchronized (slotLoads) {
+            while (true) {
+                config = slotConfigs.get(doctorId);
+                if (config != null && (System.nanoTime() - config.loadedAt < slotsMaxAgeNanos
+                        || slotLoads.contains(doctorId))) {
+                    return config;
+                }
+                if (config == null && isMissing(doctorId)) {
+                    return null;
+                }
+                if (!slotLoads.contains(doctorId)) {
+                    break;
+                }
+                try {
+                    slotLoads.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return loadSlots(doctorId);
+                }
+            }
+            slotLoads.add(doctorId);
+            epoch = slotEpoch.get();
+        }
+
+        boolean read = false;
+        SlotConfig loaded = null;
+        try {
+            loaded = loadSlots(doctorId);
+            read = true;
+            return loaded;
+        } finally {
+            synchronized (slotLoads) {
+                slotLoads.remove(doctorId);
+                // A replace or evict that raced with the query wins; the next
+                // request reads the doctor again.
+                if (read && slotEpoch.get() == epoch) {
+                    if (loaded != null) {
+                        slotConfigs.put(doctorId, loaded);
+                    } else {
+                        slotConfigs.remove(doctorId);
+                        if (missing.size() >= MAX_MISSING) {
+                            missing.clear();
+                        }
+                        missing.put(doctorId, System.nanoTime());
+                    }
+                }
+                slotLoads.notifyAll();
+            }
+        }
+    }
+
+    private boolean isMissing(long doctorId) {
+        Long checkedAt = missing.get(doctorId);
+        if (checkedAt == null) {
+            return false;
+        }
+        if (System.nanoTime() - checkedAt < missingTtlNanos) {
+            return true;
+        }
+        missing.remove(doctorId, checkedAt);
+        return false;
+    }
+
+    private SlotConfig loadSlots(long doctorId) {
+        Doctor doctor = jdbc.call(() -> doctorRepo.findWithAvailableTimesById(doctorId));
+        return doctor != null ? new SlotConfig(doctor.getSlots()) : null;
+    }
+
+    // One request per (doctor, date) reads an expired day again; the others are
+    // answered from the expired bits meanwhile, or wait if there are none yet.
+    private long[] bookedOn(long doctorId, LocalDate date) {
+        DoctorBookings doctor = bookings.computeIfAbsent(doctorId, id -> new DoctorBookings());
+        long version;
+        synchronized (doctor) {
+            while (true) {
+                DayBookings day = doctor.days.get(date);
+                if (day != null && (System.nanoTime() - day.loadedAt < bookingsTtlNanos
+                        || doctor.loading.contains(date))) {
+                    return day.bits.clone();
+                }
+                if (!doctor.loading.contains(date)) {
+                    break;
+                }
+                try {
+                    doctor.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return loadDay(doctorId, date).bits;
+                }
+            }
+            doctor.loading.add(date);
+            version = doctor.version;
+        }
+
+        DayBookings loaded = null;
+        try {
+            loaded = loadDay(doctorId, date);
+            return loaded.bits.clone();
+        } finally {
+            LocalDate today = LocalDate.now();
+            synchronized (doctor) {
+                doctor.loading.remove(date);
+                doctor.days.keySet().removeIf(d -> d.isBefore(today));
+                // Only cache if no booking change raced with the query, and never
+                // cache past days since nobody books into them. An expired entry
+                // left in place is read again by the next request.
+                if (loaded != null && doctor.version == version && !date.isBefore(today)) {
+                    doctor.days.put(date, loaded);
+                }
+                doctor.notifyAll();
+            }
+        }
+    }
+
+    private DayBookings loadDay(long doctorId, LocalDate date) {
+        DayBookings loaded = new DayBookings();
+        List<LocalDateTime> times = jdbc.call(() -> appointmentRepo.findAppointmentDatesByDoctorIdBetween(doctorId,
+                date.atStartOfDay(), date.atTime(23, 59, 59)));
+        for (LocalDateTime time : times) {
+            int minute = SlotTimes.minuteOf(time);
+            if (minute < 0) {
+                continue;
+            }
+            if (isSet(loaded.bits, minute)) {
+                loaded.shared = true;
+            }
+            set(loaded.bits, minute);
+        }
+        return loaded;
+    }
+
+    private static boolean isSet(long[] bits, int minute) {
+        return (bits[minute >>> 6] & (1L << minute)) != 0;
+    }
+
+    private static void set(long[] bits, int minute) {
+        bits[minute >>> 6] |= 1L << minute;
+    }
+
+    private static void clear(long[] bits, int minute) {
+        bits[minute >>> 6] &= ~(1L << minute);
+    }
+
+    // Immutable snapshot of a doctor's configured slots.
+    private static final class SlotConfig {
+        private final long loadedAt = System.nanoTime();
+        private final String[] slots;
+        private final int[] minutes;
+        private final long[] mask = new long[WORDS];
+
+        SlotConfig(List<TimeSlot> configured) {
+            List<TimeSlot> times = configured != null ? configured : Collections.emptyList();
+            slots = new String[times.size()];
+            minutes = new int[slots.length];
+            for (int i = 0; i < slots.length; i++) {
+                slots[i] = times.get(i).toString();
+                minutes[i] = times.get(i).getStartMinute();
+                set(mask, minutes[i]);
+            }
+        }
+    }
+
+    private static final class DoctorBookings {
+        private final Map<LocalDate, DayBookings> days = new ConcurrentHashMap<>();
+        // Days being read from the database; guarded by the instance's monitor
+        private final Set<LocalDate> loading = new HashSet<>();
+        private long version;
+    }
+
+    private static final class DayBookings {
+        private final long[] bits = new long[WORDS];
+        private final long loadedAt = System.nanoTime();
+        // True when two appointments share a start time (legacy data).
+        private boolean shared;
+    }
+}
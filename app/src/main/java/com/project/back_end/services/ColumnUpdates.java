@@ -0,0 +1,71 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.Admin;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.models.TimeSlot;
+import com.project.back_end.models.TimeSlotsConverter;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Single-column writes that go around the entity.
+ *
+ * Saving an entity makes Hibernate validate the whole row, and legacy rows
+ * (phone numbers from before the pattern, for instance) fail that although
+ * the column being written is fine. A JPQL bulk UPDATE skips validation but
+ * evicts the entity's entire second-level cache region. These statements
+ * skip both: they write one column of one row and, once committed, evict only
+ * that row's cache entry. Entities already loaded in the current persistence
+ * context are not refreshed.
+ */
+@Component
+public class ColumnUpdates {
+
+    private static final TimeSlotsConverter SLOTS = new TimeSlotsConverter();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    public ColumnUpdates(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    public boolean doctorSlots(long doctorId, List<TimeSlot> slots) {
+        int rows = jdbcTemplate.update("UPDATE doctor SET available_slots = ? WHERE id = ?",
+                SLOTS.convertToDatabaseColumn(slots), doctorId);
+        evictAfterCommit(Doctor.class, doctorId);
+        return rows > 0;
+    }
+
+    // Password upgrades on login. Each replaces the stored value only if it is
+    // still the one the login was checked against, so a password changed in
+    // the meantime is kept.
+    public boolean adminPassword(long adminId, String expected, String password) {
+        return replacePassword("admins", "password", Admin.class, adminId, expected, password);
+    }
+
+    public boolean doctorPassword(long doctorId, String expected, String password) {
+        return replacePassword("doctor", "password", Doctor.class, doctorId, expected, password);
+    }
+
+    public boolean patientPassword(long patientId, String expected, String password) {
+        return replacePassword("patient", "passsword", Patient.class, patientId, expected, password);
+    }
+
+    private boolean replacePassword(String table, String column, Class<?> type, long id, String expected,
+            String password) {
+        int rows = jdbcTemplate.update("UPDATE " + table + " SET " + column + " = ? WHERE id = ? AND " + column
+                + " = ?", password, id, expected);
+        evictAfterCommit(type, id);
+        return rows > 0;
+    }
+
+    private void evictAfterCommit(Class<?> type, long id) {
+        TransactionHooks.afterCommit(() -> entityManagerFactory.getCache().evict(type, id));
+    }
+}
@@ -0,0 +1,165 @@
+package com.project.back_end.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Hashes and checks passwords with BCrypt on a small pool of its own.
+ *
+ * A BCrypt check costs milliseconds of CPU by design, so a login storm run on
+ * request threads would slow every other endpoint down with it. Here at most
+ * auth.verify-threads checks run at once and at most auth.verify-queue wait;
+ * beyond that, or past auth.verify-timeout-ms, the login is answered as busy.
+ * Rows still holding a plaintext password are compared as before and, on a
+ * match, handed a hash to store in its place.
+ */
+@Component
+public class CredentialVerifier {
+
+    private static final Logger log = LoggerFactory.getLogger(CredentialVerifier.class);
+
+    public static final String BUSY = "Too many logins in progress, please retry";
+
+    public enum Result {
+        MATCH, MISMATCH, BUSY
+    }
+
+    private final BCryptPasswordEncoder encoder;
+    private final ThreadPoolExecutor pool;
+    private final long timeoutMillis;
+    private final Timer matched;
+    private final Timer mismatched;
+    private final Counter rejected;
+    private final Counter rehashed;
+
+    public CredentialVerifier(MeterRegistry meterRegistry, @Value("${auth.bcrypt-strength:10}") int strength,
+            @Value("${auth.verify-threads:0}") int threads, @Value("${auth.verify-queue:64}") int queue,
+            @Value("${auth.verify-timeout-ms:2000}") long timeoutMillis) {
+        this.encoder = new BCryptPasswordEncoder(strength);
+        this.timeoutMillis = timeoutMillis;
+        // 0 means one per core: hashing is pure CPU, more threads only add queueing
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger count = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(size, size, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(queue),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "credential-verify-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.pool.allowCoreThreadTimeOut(true);
+
+        this.matched = Timer.builder("auth.verify").tag("outcome", "match").register(meterRegistry);
+        this.mismatched = Timer.builder("auth.verify").tag("outcome", "mismatch").register(meterRegistry);
+        this.rejected = meterRegistry.counter("auth.verify.rejected");
+        this.rehashed = meterRegistry.counter("auth.verify.rehashed");
+        Gauge.builder("auth.verify.queue", pool, p -> p.getQueue().size()).register(meterRegistry);
+        Gauge.builder("auth.verify.active", pool, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    // Checks a login attempt against the stored password. When the stored value
+    // is a legacy plaintext password and matches, its hash is passed to rehash,
+    // on the calling thread, before MATCH is returned. A rehash that throws is
+    // logged and does not fail the login.
+    public Result verify(String raw, String stored, Consumer<String> rehash) {
+        if (raw == null || stored == null) {
+            return Result.MISMATCH;
+        }
+        long start = System.nanoTime();
+        Check check;
+        try {
+            check = await(pool.submit(() -> check(raw, stored)));
+        } catch (RejectedExecutionException | TimeoutException e) {
+            rejected.increment();
+            return Result.BUSY;
+        }
+        (check.match ? matched : mismatched).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (check.rehash != null) {
+            // The login has succeeded either way; the upgrade is retried on the next one
+            try {
+                rehash.accept(check.rehash);
+                rehashed.increment();
+            } catch (RuntimeException e) {
+                log.warn("Could not store the upgraded password hash", e);
+            }
+        }
+        return check.match ? Result.MATCH : Result.MISMATCH;
+    }
+
+    // The value to store for a new password; null if the pool is saturated
+    public String hash(String raw) {
+        try {
+            return await(pool.submit(() -> encoder.encode(raw)));
+        } catch (RejectedExecutionException | TimeoutException e) {
+            rejected.increment();
+            return null;
+        }
+    }
+
+    // BCrypt's modular crypt format: $2a$, $2b$ or $2y$, cost, then 53 characters
+    public static boolean isHashed(String stored) {
+        return stored.length() == 60 && stored.startsWith("$2") && stored.charAt(3) == '$';
+    }
+
+    private Check check(String raw, String stored) {
+        if (isHashed(stored)) {
+            return encoder.matches(raw, stored) ? Check.MATCH : Check.MISMATCH;
+        }
+        boolean equal = MessageDigest.isEqual(raw.getBytes(StandardCharsets.UTF_8),
+                stored.getBytes(StandardCharsets.UTF_8));
+        return equal ? new Check(true, encoder.encode(raw)) : Check.MISMATCH;
+    }
+
+    private <T> T await(Future<T> future) throws TimeoutException {
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw e;
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new TimeoutException("Interrupted while waiting for the credential check");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static final class Check {
+        static final Check MATCH = new Check(true, null);
+        static final Check MISMATCH = new Check(false, null);
+
+        final boolean match;
+        // Hash to store in place of a matching legacy plaintext password
+        final String rehash;
+
+        Check(boolean match, String rehash) {
+            this.match = match;
+            this.rehash = rehash;
+        }
+    }
+}
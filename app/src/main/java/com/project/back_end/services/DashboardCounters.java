@@ -0,0 +1,176 @@
+package com.project.back_end.services;
+
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PatientRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Row counts for the admin dashboard, kept in memory.
+ *
+ * The services report every committed insert, delete and status change, so
+ * reading the stats costs nothing. A periodic reconcile replaces the totals
+ * with fresh counts from the database; changes that commit while it runs are
+ * carried over, so the worst case is a small drift that the next reconcile
+ * removes.
+ */
+@Component
+public class DashboardCounters {
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardCounters.class);
+
+    private final DoctorRepository doctorRepo;
+    private final PatientRepository patientRepo;
+    private final AppointmentRepository appointmentRepo;
+
+    private final Counts totals = new Counts();
+    // Changes seen while a reconcile is counting, replayed on top of its result
+    private volatile Counts inFlight;
+    private volatile boolean loaded;
+
+    public DashboardCounters(DoctorRepository doctorRepo, PatientRepository patientRepo,
+            AppointmentRepository appointmentRepo) {
+        this.doctorRepo = doctorRepo;
+        this.patientRepo = patientRepo;
+        this.appointmentRepo = appointmentRepo;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!loaded) {
+            reconcile();
+        }
+    }
+
+    @Scheduled(initialDelayString = "${dashboard.reconcile-ms:300000}", fixedDelayString = "${dashboard.reconcile-ms:300000}")
+    public synchronized void reconcile() {
+        Counts delta = new Counts();
+        inFlight = delta;
+        try {
+            long doctors = doctorRepo.count();
+            long patients = patientRepo.count();
+            Map<String, Long> byStatus = new ConcurrentHashMap<>();
+            long appointments = 0;
+            for (Object[] row : appointmentRepo.countGroupedByStatus()) {
+                long count = ((Number) row[1]).longValue();
+                byStatus.put(statusKey((String) row[0]), count);
+                appointments += count;
+            }
+            synchronized (totals) {
+                inFlight = null;
+                totals.doctors.set(doctors + delta.doctors.get());
+                totals.patients.set(patients + delta.patients.get());
+                totals.appointments.set(appointments + delta.appointments.get());
+                totals.byStatus.clear();
+                byStatus.forEach((status, count) -> totals.byStatus.put(status, new AtomicLong(count)));
+                delta.byStatus.forEach((status, count) -> totals.status(status).addAndGet(count.get()));
+            }
+            loaded = true;
+        } catch (Exception e) {
+            inFlight = null;
+            log.error("Failed to reconcile dashboard counters", e);
+        }
+    }
+
+    public Map<String, Long> snapshot() {
+        if (!loaded) {
+            reconcile();
+        }
+        Map<String, Long> stats = new TreeMap<>();
+        synchronized (totals) {
+            stats.put("doctors", totals.doctors.get());
+            stats.put("patients", totals.patients.get());
+            stats.put("appointments", totals.appointments.get());
+            totals.byStatus.forEach((status, count) -> {
+                if (count.get() != 0) {
+                    stats.put("appointments." + status, count.get());
+                }
+            });
+        }
+        return stats;
+    }
+
+    public void doctorAdded() {
+        apply(counts -> counts.doctors.incrementAndGet());
+    }
+
+    public void doctorRemoved() {
+        apply(counts -> counts.doctors.decrementAndGet());
+    }
+
+    public void patientAdded() {
+        apply(counts -> counts.patients.incrementAndGet());
+    }
+
+    public void appointmentAdded(String status) {
+        apply(counts -> {
+            counts.appointments.incrementAndGet();
+            counts.status(statusKey(status)).incrementAndGet();
+        });
+    }
+
+    public void appointmentRemoved(String status) {
+        apply(counts -> {
+            counts.appointments.decrementAndGet();
+            counts.status(statusKey(status)).decrementAndGet();
+        });
+    }
+
+    // Rows grouped by status, as returned by countGroupedByStatus queries
+    public void appointmentsRemoved(List<Object[]> statusCounts) {
+        apply(counts -> {
+            for (Object[] row : statusCounts) {
+                long count = ((Number) row[1]).longValue();
+                counts.appointments.addAndGet(-count);
+                counts.status(statusKey((String) row[0])).addAndGet(-count);
+            }
+        });
+    }
+
+    public void appointmentStatusChanged(String from, String to) {
+        if (statusKey(from).equals(statusKey(to))) {
+            return;
+        }
+        apply(counts -> {
+            counts.status(statusKey(from)).decrementAndGet();
+            counts.status(statusKey(to)).incrementAndGet();
+        });
+    }
+
+    private void apply(Consumer<Counts> change) {
+        synchronized (totals) {
+            change.accept(totals);
+            Counts delta = inFlight;
+            if (delta != null) {
+                change.accept(delta);
+            }
+        }
+    }
+
+    private static String statusKey(String status) {
+        return status != null ? status : "null";
+    }
+
+    private static final class Counts {
+        private final AtomicLong doctors = new AtomicLong();
+        private final AtomicLong patients = new AtomicLong();
+        private final AtomicLong appointments = new AtomicLong();
+        private final Map<String, AtomicLong> byStatus = new ConcurrentHashMap<>();
+
+        AtomicLong status(String status) {
+            return byStatus.computeIfAbsent(status, s -> new AtomicLong());
+        }
+    }
+}
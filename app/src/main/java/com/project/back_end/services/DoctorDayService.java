@@ -0,0 +1,117 @@
+package com.project.back_end.services;
+
+import com.project.back_end.DTO.DoctorDayEntry;
+import com.project.back_end.repo.AppointmentRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Builds a doctor's whole day in one request.
+ *
+ * The day's appointment ids come from the (doctor_id, appointment_date) index
+ * first; the prescription lookup for those ids then runs on a small pool while
+ * the request thread loads the appointment and patient columns, and the two are
+ * merged here. If MongoDB is slow or down the appointments are still returned,
+ * flagged with prescriptionsLoaded=false.
+ */
+@Service
+public class DoctorDayService {
+
+    private static final Logger log = LoggerFactory.getLogger(DoctorDayService.class);
+
+    private final AppointmentRepository appointmentRepo;
+    private final PrescriptionService prescriptionService;
+    private final TokenService tokenService;
+    private final long mongoTimeoutMillis;
+    private final ThreadPoolExecutor mongoLookups;
+
+    public DoctorDayService(AppointmentRepository appointmentRepo, PrescriptionService prescriptionService,
+            TokenService tokenService, @Value("${dayview.mongo-threads:8}") int mongoThreads,
+            @Value("${dayview.mongo-timeout-ms:1000}") long mongoTimeoutMillis) {
+        this.appointmentRepo = appointmentRepo;
+        this.prescriptionService = prescriptionService;
+        this.tokenService = tokenService;
+        this.mongoTimeoutMillis = mongoTimeoutMillis;
+        AtomicInteger threads = new AtomicInteger();
+        this.mongoLookups = new ThreadPoolExecutor(mongoThreads, mongoThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(mongoThreads * 16), runnable -> {
+                    Thread thread = new Thread(runnable, "dayview-mongo-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.mongoLookups.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        mongoLookups.shutdownNow();
+    }
+
+    // Null when the token does not belong to a doctor
+    public Map<String, Object> getDay(String token, LocalDate date) {
+        VerifiedPrincipal doctor = tokenService.getPrincipal(token, "doctor");
+        if (doctor == null) {
+            return null;
+        }
+        LocalDateTime start = date.atStartOfDay();
+        LocalDateTime end = date.atTime(LocalTime.MAX);
+        List<Long> appointmentIds = appointmentRepo.findIdsByDoctorIdAndAppointmentDateBetween(doctor.getId(), start,
+                end);
+
+        CompletableFuture<Set<Long>> prescribed = appointmentIds.isEmpty()
+                ? CompletableFuture.completedFuture(Collections.emptySet())
+                : lookUpPrescribed(appointmentIds);
+        List<DoctorDayEntry> entries = appointmentRepo.findDayEntries(doctor.getId(), start, end);
+
+        boolean prescriptionsLoaded = true;
+        try {
+            Set<Long> ids = prescribed.get(mongoTimeoutMillis, TimeUnit.MILLISECONDS);
+            for (DoctorDayEntry entry : entries) {
+                entry.setPrescribed(ids.contains(entry.getId()));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            prescriptionsLoaded = false;
+        } catch (ExecutionException | TimeoutException e) {
+            log.warn("Prescriptions for doctor {} on {} unavailable: {}", doctor.getId(), date, e.toString());
+            prescribed.cancel(true);
+            prescriptionsLoaded = false;
+        }
+
+        Map<String, Object> day = new LinkedHashMap<>();
+        day.put("date", date);
+        day.put("prescriptionsLoaded", prescriptionsLoaded);
+        day.put("appointments", entries);
+        return day;
+    }
+
+    private CompletableFuture<Set<Long>> lookUpPrescribed(List<Long> appointmentIds) {
+        try {
+            return CompletableFuture.supplyAsync(() -> prescriptionService.findPrescribedAppointmentIds(appointmentIds),
+                    mongoLookups);
+        } catch (RejectedExecutionException e) {
+            // Pool saturated: skip the prescriptions rather than queue behind a slow MongoDB
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+}
@@ -0,0 +1,360 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.TimeSlot;
+import com.project.back_end.repo.DoctorRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory search index over the doctor directory.
+ *
+ * Every doctor gets a dense ordinal. Name and speciality are indexed as
+ * lower-cased trigram postings, configured slots as exact-string postings and
+ * as morning/afternoon/evening bucket bitsets. A filter intersects the
+ * matching bitsets and then verifies the substring against the pre-lowered
+ * text, so requests never load the doctor table or parse slot strings.
+ *
+ * The index is loaded on first use and kept current by DoctorService.
+ * Changes made through another instance do not reach it, so it is loaded
+ * again once it is older than doctor-directory.max-age-ms, as DoctorListCache
+ * does. One caller reloads at a time, off the lock, while the others search
+ * the previous index; a load that raced with a change made here is dropped
+ * and retried on the next search.
+ */
+@Component
+public class DoctorDirectoryIndex {
+
+    private static final int GRAM = 3;
+
+    private static final int MORNING = 0;
+    private static final int AFTERNOON = 1;
+    private static final int EVENING = 2;
+
+    private final DoctorRepository doctorRepo;
+    private final long maxAgeNanos;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock reload = new ReentrantLock();
+
+    // Guarded by lock; directory is null until the first load
+    private Directory directory;
+    private long loadedAt;
+    private boolean expired;
+    // Bumped by every change made here, so a load read before it is not installed
+    private long version;
+
+    public DoctorDirectoryIndex(DoctorRepository doctorRepo,
+            @Value("${doctor-directory.max-age-ms:10000}") long maxAgeMillis) {
+        this.doctorRepo = doctorRepo;
+        this.maxAgeNanos = TimeUnit.MILLISECONDS.toNanos(maxAgeMillis);
+    }
+
+    // Filters are case-insensitive substrings for name and speciality; time is
+    // either an exact slot string (contains ':') or morning/afternoon/evening.
+    // A null filter matches every doctor. Results are in doctor id order.
+    public List<Doctor> search(String name, String time, String speciality) {
+        ensureFresh();
+        lock.readLock().lock();
+        try {
+            return directory.search(name, time, speciality);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void put(Doctor doctor) {
+        lock.writeLock().lock();
+        try {
+            version++;
+            if (directory != null) {
+                directory.put(doctor);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void updateSlots(long doctorId, List<TimeSlot> slots) {
+        lock.writeLock().lock();
+        try {
+            version++;
+            if (directory != null) {
+                directory.updateSlots(doctorId, slots);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long doctorId) {
+        lock.writeLock().lock();
+        try {
+            version++;
+            if (directory != null) {
+                directory.remove(doctorId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void ensureFresh() {
+        boolean loaded;
+        lock.readLock().lock();
+        try {
+            if (isFresh()) {
+                return;
+            }
+            loaded = directory != null;
+        } finally {
+            lock.readLock().unlock();
+        }
+        // Only the first load is waited for; a stale index is searched meanwhile
+        if (loaded) {
+            if (!reload.tryLock()) {
+                return;
+            }
+        } else {
+            reload.lock();
+        }
+        try {
+            long loadVersion;
+            lock.readLock().lock();
+            try {
+                if (isFresh()) {
+                    return;
+                }
+                loadVersion = version;
+            } finally {
+                lock.readLock().unlock();
+            }
+            long startedAt = System.nanoTime();
+            Directory fresh = new Directory();
+            for (Doctor doctor : doctorRepo.findAllWithAvailableTimes()) {
+                fresh.put(doctor);
+            }
+            lock.writeLock().lock();
+            try {
+                if (version == loadVersion || directory == null) {
+                    directory = fresh;
+                    loadedAt = startedAt;
+                    // Better than nothing, but reloaded by the next search
+                    expired = version != loadVersion;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            reload.unlock();
+        }
+    }
+
+    // Caller holds lock
+    private boolean isFresh() {
+        return directory != null && !expired && System.nanoTime() - loadedAt < maxAgeNanos;
+    }
+
+    // One complete index; replaced as a whole on reload
+    private static final class Directory {
+        private final List<Entry> entries = new ArrayList<>();
+        private final Map<Long, Integer> ordinals = new HashMap<>();
+        private final BitSet live = new BitSet();
+        private final Map<String, BitSet> nameGrams = new HashMap<>();
+        private final Map<String, BitSet> specialityGrams = new HashMap<>();
+        private final Map<String, BitSet> exactSlots = new HashMap<>();
+        private final BitSet[] buckets = {new BitSet(), new BitSet(), new BitSet()};
+
+        List<Doctor> search(String name, String time, String speciality) {
+            BitSet candidates = (BitSet) live.clone();
+            if (time != null) {
+                candidates.and(timePostings(time));
+            }
+            String nameQuery = name != null ? name.toLowerCase(Locale.ROOT) : null;
+            String specialityQuery = speciality != null ? speciality.toLowerCase(Locale.ROOT) : null;
+            if (nameQuery != null) {
+                intersectGrams(candidates, nameGrams, nameQuery);
+            }
+            if (specialityQuery != null) {
+                intersectGrams(candidates, specialityGrams, specialityQuery);
+            }
+
+            List<Doctor> result = new ArrayList<>(candidates.cardinality());
+            for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+                Entry entry = entries.get(i);
+                if (nameQuery != null && !entry.name.contains(nameQuery)) {
+                    continue;
+                }
+                if (specialityQuery != null && !entry.speciality.contains(specialityQuery)) {
+                    continue;
+                }
+                result.add(entry.doctor);
+            }
+            return result;
+        }
+
+        void put(Doctor doctor) {
+            Integer ordinal = ordinals.get(doctor.getId());
+            if (ordinal != null) {
+                unindex(ordinal);
+            } else {
+                ordinal = entries.size();
+                entries.add(null);
+                ordinals.put(doctor.getId(), ordinal);
+            }
+            index(ordinal, doctor);
+        }
+
+        void updateSlots(long doctorId, List<TimeSlot> slots) {
+            Integer ordinal = ordinals.get(doctorId);
+            if (ordinal == null) {
+                return;
+            }
+            // Index a copy: the previous instance may be in the middle of being serialized
+            Doctor current = entries.get(ordinal).doctor;
+            Doctor updated = new Doctor(current.getName(), current.getSpeciality(), current.getEmail(),
+                    current.getPassword(), current.getPhone(), null);
+            updated.setId(doctorId);
+            updated.setSlots(slots);
+            unindex(ordinal);
+            index(ordinal, updated);
+        }
+
+        void remove(long doctorId) {
+            Integer ordinal = ordinals.remove(doctorId);
+            if (ordinal != null) {
+                unindex(ordinal);
+            }
+        }
+
+        private void index(int ordinal, Doctor doctor) {
+            Entry entry = new Entry(doctor);
+            entries.set(ordinal, entry);
+            live.set(ordinal);
+            for (String gram : grams(entry.name)) {
+                nameGrams.computeIfAbsent(gram, g -> new BitSet()).set(ordinal);
+            }
+            for (String gram : grams(entry.speciality)) {
+                specialityGrams.computeIfAbsent(gram, g -> new BitSet()).set(ordinal);
+            }
+            for (TimeSlot slot : entry.doctor.getSlots()) {
+                exactSlots.computeIfAbsent(slot.toString(), s -> new BitSet()).set(ordinal);
+                int bucket = bucketOf(slot.getStartMinute());
+                if (bucket >= 0) {
+                    buckets[bucket].set(ordinal);
+                }
+            }
+        }
+
+        private void unindex(int ordinal) {
+            Entry entry = entries.get(ordinal);
+            if (entry == null) {
+                return;
+            }
+            live.clear(ordinal);
+            clearPostings(nameGrams, grams(entry.name), ordinal);
+            clearPostings(specialityGrams, grams(entry.speciality), ordinal);
+            clearPostings(exactSlots, entry.slots, ordinal);
+            for (BitSet bucket : buckets) {
+                bucket.clear(ordinal);
+            }
+            entries.set(ordinal, null);
+        }
+
+        private BitSet timePostings(String time) {
+            if (time.contains(":")) {
+                // Postings are keyed by the canonical spelling
+                TimeSlot slot = TimeSlot.parse(time);
+                BitSet bits = exactSlots.get(slot != null ? slot.toString() : time);
+                return bits != null ? bits : new BitSet();
+            }
+            switch (time.toLowerCase(Locale.ROOT)) {
+                case "morning":
+                    return buckets[MORNING];
+                case "afternoon":
+                    return buckets[AFTERNOON];
+                case "evening":
+                    return buckets[EVENING];
+                default:
+                    return new BitSet();
+            }
+        }
+    }
+
+    private static void clearPostings(Map<String, BitSet> postings, Iterable<String> keys, int ordinal) {
+        for (String key : keys) {
+            BitSet bits = postings.get(key);
+            if (bits != null) {
+                bits.clear(ordinal);
+                if (bits.isEmpty()) {
+                    postings.remove(key);
+                }
+            }
+        }
+    }
+
+    // Queries shorter than a trigram cannot use the postings and are verified
+    // against every candidate instead.
+    private static void intersectGrams(BitSet candidates, Map<String, BitSet> postings, String query) {
+        for (String gram : grams(query)) {
+            BitSet bits = postings.get(gram);
+            if (bits == null) {
+                candidates.clear();
+                return;
+            }
+            candidates.and(bits);
+        }
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    // Same hour ranges the filter has always used
+    private static int bucketOf(int minute) {
+        if (minute < 0) {
+            return -1;
+        }
+        int hour = minute / 60;
+        if (hour >= 6 && hour < 12) {
+            return MORNING;
+        }
+        if (hour >= 12 && hour < 17) {
+            return AFTERNOON;
+        }
+        if (hour >= 17 && hour < 21) {
+            return EVENING;
+        }
+        return -1;
+    }
+
+    private static final class Entry {
+        private final Doctor doctor;
+        private final String name;
+        private final String speciality;
+        private final List<String> slots;
+
+        Entry(Doctor doctor) {
+            this.doctor = doctor;
+            this.name = doctor.getName() != null ? doctor.getName().toLowerCase(Locale.ROOT) : "";
+            this.speciality = doctor.getSpeciality() != null ? doctor.getSpeciality().toLowerCase(Locale.ROOT) : "";
+            this.slots = doctor.getAvailableTimes();
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.project.back_end.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.back_end.models.Doctor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * The public doctor list, serialized once and served as bytes until a doctor
+ * changes.
+ *
+ * The ETag is a hash of the body, so it is strong, survives restarts and
+ * agrees between instances that have loaded the same list. DoctorService bumps
+ * the version after each committed change; a body built from data read before
+ * the bump is never stored. Changes made through another instance do not bump
+ * it, so a snapshot is also rebuilt once it is older than
+ * doctor-list.max-age-ms, which bounds how long such a change goes unseen.
+ * One caller rebuilds at a time; the others are served the previous snapshot
+ * meanwhile, and only wait when there is none yet.
+ */
+@Component
+public class DoctorListCache {
+
+    private final ObjectMapper objectMapper;
+    private final long maxAgeNanos;
+    private final AtomicLong version = new AtomicLong();
+    private final ReentrantLock rebuild = new ReentrantLock();
+    private volatile Snapshot current;
+
+    public DoctorListCache(ObjectMapper objectMapper, @Value("${doctor-list.max-age-ms:10000}") long maxAgeMillis) {
+        this.objectMapper = objectMapper;
+        this.maxAgeNanos = TimeUnit.MILLISECONDS.toNanos(maxAgeMillis);
+    }
+
+    public Snapshot get(Supplier<List<Doctor>> loader) {
+        Snapshot snapshot = current;
+        if (isFresh(snapshot)) {
+            return snapshot;
+        }
+        if (snapshot == null) {
+            rebuild.lock();
+        } else if (!rebuild.tryLock()) {
+            return snapshot;
+        }
+        try {
+            Snapshot latest = current;
+            if (isFresh(latest)) {
+                return latest;
+            }
+            long loadedVersion = version.get();
+            long now = System.nanoTime();
+            byte[] body;
+            try {
+                body = objectMapper.writeValueAsBytes(Map.of("doctors", loader.get()));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Cannot serialize doctor list", e);
+            }
+            snapshot = new Snapshot(loadedVersion, now, body, etagOf(body));
+            if (version.get() == loadedVersion) {
+                current = snapshot;
+            }
+            return snapshot;
+        } finally {
+            rebuild.unlock();
+        }
+    }
+
+    // The previous snapshot stays to be served while the next one is built
+    public void invalidate() {
+        version.incrementAndGet();
+    }
+
+    private boolean isFresh(Snapshot snapshot) {
+        return snapshot != null && snapshot.version == version.get()
+                && System.nanoTime() - snapshot.loadedAt < maxAgeNanos;
+    }
+
+    private static String etagOf(byte[] body) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(hash) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static final class Snapshot {
+        private final long version;
+        // When the list was read, not when it was serialized
+        private final long loadedAt;
+        private final byte[] body;
+        private final String etag;
+
+        Snapshot(long version, long loadedAt, byte[] body, String etag) {
+            this.version = version;
+            this.loadedAt = loadedAt;
+            this.body = body;
+            this.etag = etag;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        // If-None-Match may list several tags, weak ones included, or be "*"
+        public boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null) {
+                return false;
+            }
+            for (String tag : ifNoneMatch.split(",")) {
+                tag = tag.trim();
+                if (tag.startsWith("W/")) {
+                    tag = tag.substring(2);
+                }
+                if (tag.equals("*") || tag.equals(etag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -1,68 +1,64 @@
 package com.project.back_end.services;
 
 import com.project.back_end.models.Doctor;
+import com.project.back_end.models.TimeSlot;
 import com.project.back_end.repo.AppointmentRepository;
 import com.project.back_end.repo.DoctorRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class DoctorService {
 
+    private static final Logger log = LoggerFactory.getLogger(DoctorService.class);
+
+    private static final int MAX_PAGE_SIZE = 200;
+
     private final DoctorRepository doctorRepo;
     private final AppointmentRepository appointmentRepo;
     private final TokenService tokenService;
+    private final AvailabilityIndex availabilityIndex;
+    private final DoctorDirectoryIndex doctorDirectory;
+    private final DashboardCounters dashboardCounters;
+    private final AppointmentOutbox outbox;
+    private final DoctorListCache doctorListCache;
+    private final CredentialVerifier credentials;
+    private final ColumnUpdates columnUpdates;
 
     @Autowired
     public DoctorService(DoctorRepository doctorRepo, AppointmentRepository appointmentRepo,
-            TokenService tokenService) {
+            TokenService tokenService, AvailabilityIndex availabilityIndex, DoctorDirectoryIndex doctorDirectory,
+            DashboardCounters dashboardCounters, AppointmentOutbox outbox, DoctorListCache doctorListCache,
+            CredentialVerifier credentials, ColumnUpdates columnUpdates) {
         this.doctorRepo = doctorRepo;
         this.appointmentRepo = appointmentRepo;
         this.tokenService = tokenService;
+        this.availabilityIndex = availabilityIndex;
+        this.doctorDirectory = doctorDirectory;
+        this.dashboardCounters = dashboardCounters;
+        this.outbox = outbox;
+        this.doctorListCache = doctorListCache;
+        this.credentials = credentials;
+        this.columnUpdates = columnUpdates;
     }
 
-    @Transactional(readOnly = true)
     public List<String> getDoctorAvailability(Long doctorId, LocalDateTime date) {
-        // Logic: Get doctor's standard times, remove those that are booked in
-        // appointments
-
-        Doctor doctor = doctorRepo.findById(doctorId).orElse(null);
-        if (doctor == null)
-            return new ArrayList<>();
-
-        // Fetch booked appointments on that day
-        LocalDateTime startOfDay = date.toLocalDate().atStartOfDay();
-        LocalDateTime endOfDay = date.toLocalDate().atTime(23, 59, 59);
-
-        List<com.project.back_end.models.Appointment> booked = appointmentRepo
-                .findByDoctorIdAndAppointmentDateBetween(doctorId, startOfDay, endOfDay);
-        List<LocalTime> bookedTimes = booked.stream()
-                .map(app -> app.getAppointmentDate().toLocalTime())
-                .collect(Collectors.toList());
-
-        // Filter available slots
-        // Available times are strings like "10:00", "11:00" etc.
-        return doctor.getAvailableTimes().stream()
-                .filter(slot -> {
-                    try {
-                        // Assuming slot is "HH:mm" or "HH:mm:ss"
-                        // Handle potential format issues or different formats using simple parse if
-                        // standard ISO
-                        // If format is "10:00", LocalTime.parse works.
-                        LocalTime slotTime = LocalTime.parse(slot);
-                        return !bookedTimes.contains(slotTime);
-                    } catch (Exception e) {
-                        return true; // Keep if parse fails or assume available
-                    }
-                })
-                .collect(Collectors.toList());
+        // Served from the in-memory slot index; the database is only consulted the
+        // first time a doctor or (doctor, day) pair is looked at.
+        List<String> available = availabilityIndex.getAvailableSlots(doctorId, date.toLocalDate());
+        return available != null ? available : new ArrayList<>();
     }
 
     public int saveDoctor(Doctor doctor) {
@@ -71,10 +67,18 @@ public class DoctorService {
                 return -1;
             if (doctor.getPassword() == null || doctor.getPassword().isEmpty())
                 return 0; // Invalid input
-            doctorRepo.save(doctor);
+            String hash = credentials.hash(doctor.getPassword());
+            if (hash == null)
+                return 0; // Hashing pool saturated
+            doctor.setPassword(hash);
+            doctorDirectory.put(doctorRepo.save(doctor));
+            TransactionHooks.afterCommit(() -> {
+                dashboardCounters.doctorAdded();
+                doctorListCache.invalidate();
+            });
             return 1;
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Failed to save doctor", e);
             return 0;
         }
     }
@@ -87,9 +91,18 @@ public class DoctorService {
         // Preserve existing password if not provided in update
         if (doctor.getPassword() == null || doctor.getPassword().isEmpty()) {
             doctor.setPassword(existingDoctor.getPassword());
+        } else {
+            String hash = credentials.hash(doctor.getPassword());
+            if (hash == null)
+                return 0; // Hashing pool saturated
+            doctor.setPassword(hash);
         }
 
-        doctorRepo.save(doctor);
+        doctorDirectory.put(doctorRepo.save(doctor));
+        availabilityIndex.replaceSlots(doctor.getId(), doctor.getSlots());
+        // The email may have changed, so cached token resolutions are stale
+        tokenService.invalidatePrincipal("doctor", doctor.getId());
+        TransactionHooks.afterCommit(doctorListCache::invalidate);
         return 1;
     }
 
@@ -98,114 +111,123 @@ public class DoctorService {
         return doctorRepo.findAllWithAvailableTimes();
     }
 
+    // The serialized list behind the public GET, rebuilt only after a doctor changes
+    public DoctorListCache.Snapshot getDoctorListSnapshot() {
+        return doctorListCache.get(doctorRepo::findAllWithAvailableTimes);
+    }
+
+    // Keyset page over the directory: pass the last id seen, get the next page
+    // and the cursor to continue from (null once the end is reached).
+    @Transactional(readOnly = true)
+    public Map<String, Object> getDoctorsPage(long afterId, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<Long> ids = doctorRepo.findIdPageAfterId(afterId, Limit.of(size));
+        List<Doctor> doctors = ids.isEmpty() ? new ArrayList<>() : doctorRepo.findAllWithAvailableTimesByIdIn(ids);
+
+        Map<String, Object> page = new HashMap<>();
+        page.put("doctors", doctors);
+        page.put("nextAfterId", ids.size() < size ? null : ids.get(ids.size() - 1));
+        return page;
+    }
+
     @Transactional
     public int deleteDoctor(Long id) {
         if (!doctorRepo.existsById(id))
             return -1;
+        List<Object[]> removedAppointments = appointmentRepo.countGroupedByStatusForDoctor(id);
+        outbox.doctorDeleted(id, appointmentRepo.findIdsByDoctorId(id), removedAppointments);
         appointmentRepo.deleteAllByDoctorId(id);
         doctorRepo.deleteById(id);
+        TransactionHooks.afterCommit(() -> {
+            dashboardCounters.doctorRemoved();
+            dashboardCounters.appointmentsRemoved(removedAppointments);
+            availabilityIndex.evictDoctor(id);
+            doctorDirectory.remove(id);
+            tokenService.revokePrincipal("doctor", id);
+            doctorListCache.invalidate();
+        });
         return 1;
     }
 
     public String validateDoctor(com.project.back_end.models.Login login) {
         Doctor doctor = doctorRepo.findByEmail(login.getEmail());
-        if (doctor != null && doctor.getPassword().equals(login.getPassword())) {
-            return "token:" + tokenService.generateToken(doctor.getEmail());
+        if (doctor == null) {
+            return "Invalid credentials";
+        }
+        String legacy = doctor.getPassword();
+        CredentialVerifier.Result result = credentials.verify(login.getPassword(), legacy,
+                hash -> columnUpdates.doctorPassword(doctor.getId(), legacy, hash));
+        if (result == CredentialVerifier.Result.BUSY) {
+            return CredentialVerifier.BUSY;
+        }
+        if (result == CredentialVerifier.Result.MATCH) {
+            return "token:" + tokenService.generateToken(doctor.getEmail(), "doctor", doctor.getId());
         }
         return "Invalid credentials";
     }
 
     public Doctor getDoctorByToken(String token) {
-        if (!tokenService.validateToken(token, "doctor")) {
+        VerifiedPrincipal principal = tokenService.getPrincipal(token, "doctor");
+        if (principal == null) {
             return null;
         }
-        String email = tokenService.extractEmail(token);
-        return doctorRepo.findByEmail(email);
+        return doctorRepo.findById(principal.getId()).orElse(null);
     }
 
     // Filter implementations
-    @Transactional(readOnly = true)
     public List<Doctor> findDoctorByName(String name) {
-        return doctorRepo.findByNameContainingIgnoreCase(name);
+        return doctorDirectory.search(name, null, null);
     }
 
-    @Transactional(readOnly = true)
     public List<Doctor> filterDoctors(String name, String time, String speciality) {
-        List<Doctor> allDoctors = getDoctors();
-
-        return allDoctors.stream()
-                .filter(d -> matchesName(d, name))
-                .filter(d -> matchesSpeciality(d, speciality))
-                .filter(d -> matchesTime(d, time))
-                .collect(Collectors.toList());
-    }
-
-    private boolean matchesName(Doctor d, String name) {
-        if (name == null || name.equalsIgnoreCase("null") || name.equalsIgnoreCase("all") || name.trim().isEmpty()) {
-            return true;
-        }
-        return d.getName().toLowerCase().contains(name.toLowerCase());
+        return doctorDirectory.search(filterValue(name), filterValue(time), filterValue(speciality));
     }
 
-    private boolean matchesSpeciality(Doctor d, String speciality) {
-        if (speciality == null || speciality.equalsIgnoreCase("null") || speciality.equalsIgnoreCase("all")
-                || speciality.trim().isEmpty()) {
-            return true;
-        }
-        return d.getSpeciality().toLowerCase().contains(speciality.toLowerCase());
-    }
-
-    private boolean matchesTime(Doctor d, String time) {
-        if (time == null || time.equalsIgnoreCase("null") || time.equalsIgnoreCase("all") || time.trim().isEmpty()) {
-            return true;
-        }
-
-        List<String> times = d.getAvailableTimes();
-        if (times == null || times.isEmpty())
-            return false;
-
-        // Exact match (e.g., "11:30")
-        if (time.contains(":")) {
-            return times.contains(time);
-        }
-
-        // Range match
-        String lowerTime = time.toLowerCase();
-        for (String t : times) {
-            try {
-                LocalTime localTime = LocalTime.parse(t);
-                int hour = localTime.getHour();
-
-                if (lowerTime.equals("morning") && hour >= 6 && hour < 12)
-                    return true;
-                if (lowerTime.equals("afternoon") && hour >= 12 && hour < 17)
-                    return true;
-                if (lowerTime.equals("evening") && hour >= 17 && hour < 21)
-                    return true;
-            } catch (Exception e) {
-                // Ignore parse errors
-            }
+    // "null", "all" and blank path segments mean "no filter"
+    private static String filterValue(String value) {
+        if (value == null || value.equalsIgnoreCase("null") || value.equalsIgnoreCase("all")
+                || value.trim().isEmpty()) {
+            return null;
         }
-        return false;
+        return value;
     }
 
+    // Returns how many slots were added or removed, -1 for an unknown doctor
+    // and -2 if a time is not a slot. The whole set is one column, so a change
+    // is a single-row UPDATE and an unchanged set writes nothing. The UPDATE
+    // goes through ColumnUpdates: dirty checking would validate the whole
+    // doctor, which legacy rows fail, and a bulk statement would evict every
+    // doctor from the second-level cache instead of this one.
     @Transactional
     public int updateAvailability(String token, List<String> availableTimes) {
         Doctor doctor = getDoctorByToken(token);
         if (doctor == null) {
             return -1;
         }
-
-        // Use native queries to avoid triggering validation on the Doctor entity
-        // causing issues with bad data (legacy phone numbers etc.)
-        doctorRepo.deleteAvailableTimes(doctor.getId());
-
-        if (availableTimes != null) {
-            for (String timeSlot : availableTimes) {
-                doctorRepo.insertAvailableTime(doctor.getId(), timeSlot);
-            }
+        Doctor wanted = new Doctor();
+        try {
+            wanted.setAvailableTimes(availableTimes);
+        } catch (IllegalArgumentException e) {
+            return -2;
         }
-
-        return 1;
+        List<TimeSlot> slots = wanted.getSlots();
+
+        Set<TimeSlot> added = new HashSet<>(slots);
+        added.removeAll(doctor.getSlots());
+        Set<TimeSlot> removed = new HashSet<>(doctor.getSlots());
+        removed.removeAll(slots);
+        int slotsChanged = added.size() + removed.size();
+        if (slotsChanged == 0) {
+            return 0;
+        }
+        long doctorId = doctor.getId();
+        columnUpdates.doctorSlots(doctorId, slots);
+        TransactionHooks.afterCommit(() -> {
+            availabilityIndex.replaceSlots(doctorId, slots);
+            doctorDirectory.updateSlots(doctorId, slots);
+            doctorListCache.invalidate();
+        });
+
+        return slotsChanged;
     }
 }
@@ -0,0 +1,15 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.OutboxEvent;
+
+import java.util.List;
+
+// Receives committed appointment events from OutboxRelay in batches, with no
+// ordering guarantee between events. Delivery is at least once: a batch is
+// redelivered if any listener throws, so listeners should skip event ids they
+// have already handled. Each event is delivered on one instance only, so a
+// listener must not keep per-instance state that others need to agree on.
+public interface OutboxListener {
+
+    void onEvents(List<OutboxEvent> events);
+}
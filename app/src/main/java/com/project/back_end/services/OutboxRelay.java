@@ -0,0 +1,83 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.OutboxEvent;
+import com.project.back_end.repo.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Drains the appointment outbox in the background.
+ *
+ * Each pass locks the lowest-id batch of events, hands it to every registered
+ * OutboxListener and deletes it in the same transaction, repeating until the
+ * outbox is empty. If a listener throws, the transaction rolls back and the
+ * batch is retried on the next pass, so requests never wait on consumers and
+ * consumers see every committed change at least once. Ids are taken at
+ * insert, so a batch can be delivered before an event with a lower id
+ * commits: listeners get no ordering between events. Relays on several
+ * instances claim disjoint batches, so each event reaches the listeners of
+ * one instance only.
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository outboxRepo;
+    private final List<OutboxListener> listeners;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Counter published;
+    private final Counter failures;
+
+    public OutboxRelay(OutboxEventRepository outboxRepo, List<OutboxListener> listeners,
+            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+            @Value("${outbox.batch-size:200}") int batchSize) {
+        this.outboxRepo = outboxRepo;
+        this.listeners = new ArrayList<>(listeners);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = Math.max(1, batchSize);
+        this.published = meterRegistry.counter("outbox.events.published");
+        this.failures = meterRegistry.counter("outbox.relay.failures");
+    }
+
+    @Scheduled(initialDelayString = "${outbox.relay-ms:1000}", fixedDelayString = "${outbox.relay-ms:1000}")
+    public void relay() {
+        try {
+            int sent;
+            do {
+                Integer count = transactionTemplate.execute(status -> publishBatch());
+                sent = count != null ? count : 0;
+            } while (sent == batchSize);
+        } catch (Exception e) {
+            failures.increment();
+            log.warn("Outbox relay failed; the batch will be retried", e);
+        }
+    }
+
+    private int publishBatch() {
+        List<OutboxEvent> batch = outboxRepo.lockOldest(Limit.of(batchSize));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        List<OutboxEvent> events = Collections.unmodifiableList(batch);
+        for (OutboxListener listener : listeners) {
+            listener.onEvents(events);
+        }
+        outboxRepo.deleteAllInBatch(batch);
+        published.increment(batch.size());
+        return batch.size();
+    }
+}
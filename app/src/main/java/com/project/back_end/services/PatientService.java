@@ -1,31 +1,41 @@
 package com.project.back_end.services;
 
 import com.project.back_end.DTO.AppointmentDTO;
-import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
 import com.project.back_end.models.Patient;
 import com.project.back_end.repo.AppointmentRepository;
 import com.project.back_end.repo.PatientRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 public class PatientService {
 
+    private static final Logger log = LoggerFactory.getLogger(PatientService.class);
+
     private final PatientRepository patientRepo;
     private final AppointmentRepository appointmentRepo;
     private final TokenService tokenService;
+    private final DashboardCounters dashboardCounters;
+    private final CredentialVerifier credentials;
+    private final DoctorDirectoryIndex doctorDirectory;
 
     @Autowired
     public PatientService(PatientRepository patientRepo, AppointmentRepository appointmentRepo,
-            TokenService tokenService) {
+            TokenService tokenService, DashboardCounters dashboardCounters, CredentialVerifier credentials,
+            DoctorDirectoryIndex doctorDirectory) {
         this.patientRepo = patientRepo;
         this.appointmentRepo = appointmentRepo;
         this.tokenService = tokenService;
+        this.dashboardCounters = dashboardCounters;
+        this.credentials = credentials;
+        this.doctorDirectory = doctorDirectory;
     }
 
     public int createPatient(Patient patient) {
@@ -33,10 +43,16 @@ public class PatientService {
             if (patientRepo.findByEmail(patient.getEmail()) != null) {
                 return 0; // Exists
             }
+            String hash = credentials.hash(patient.getPasssword());
+            if (hash == null) {
+                return 0; // Hashing pool saturated
+            }
+            patient.setPasssword(hash);
             patientRepo.save(patient);
+            TransactionHooks.afterCommit(dashboardCounters::patientAdded);
             return 1;
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Failed to create patient", e);
             return 0;
         }
     }
@@ -44,10 +60,9 @@ public class PatientService {
     @Transactional(readOnly = true)
     public List<AppointmentDTO> getPatientAppointment(Long id) {
         try {
-            List<Appointment> appointments = appointmentRepo.findByPatientId(id);
-            return appointments.stream().map(AppointmentDTO::new).collect(Collectors.toList());
+            return appointmentRepo.findDtoByPatientId(id);
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Failed to load appointments for patient {}", id, e);
             return new ArrayList<>();
         }
     }
@@ -58,14 +73,14 @@ public class PatientService {
         // Assuming "past" maps to "COMPLETED" (or similar past status) and default is
         // "PENDING".
 
-        List<Appointment> apps = appointmentRepo.findByPatient_IdAndStatusOrderByAppointmentDateAsc(patientId, status);
-        return apps.stream().map(AppointmentDTO::new).collect(Collectors.toList());
+        return appointmentRepo.findDtoByPatientIdAndStatus(patientId, status);
     }
 
     @Transactional(readOnly = true)
     public List<AppointmentDTO> filterByDoctor(String doctorName, Long patientId) {
-        List<Appointment> apps = appointmentRepo.filterByDoctorNameAndPatientId(doctorName, patientId);
-        return apps.stream().map(AppointmentDTO::new).collect(Collectors.toList());
+        List<Long> doctorIds = doctorIdsByName(doctorName);
+        return doctorIds.isEmpty() ? new ArrayList<>()
+                : appointmentRepo.filterDtoByDoctorIdsAndPatientId(doctorIds, patientId);
     }
 
     @Transactional(readOnly = true)
@@ -74,14 +89,24 @@ public class PatientService {
             return filterByCondition(condition, patientId);
         }
         String status = "past".equalsIgnoreCase(condition) ? "COMPLETED" : "PENDING";
-        List<Appointment> apps = appointmentRepo.filterByDoctorNameAndPatientIdAndStatus(doctorName, patientId, status);
-        return apps.stream().map(AppointmentDTO::new).collect(Collectors.toList());
+        List<Long> doctorIds = doctorIdsByName(doctorName);
+        return doctorIds.isEmpty() ? new ArrayList<>()
+                : appointmentRepo.filterDtoByDoctorIdsAndPatientIdAndStatus(doctorIds, patientId, status);
+    }
+
+    // Doctors whose name contains the term, from the in-memory trigram index
+    private List<Long> doctorIdsByName(String doctorName) {
+        List<Long> ids = new ArrayList<>();
+        for (Doctor doctor : doctorDirectory.search(doctorName, null, null)) {
+            ids.add(doctor.getId());
+        }
+        return ids;
     }
 
     public Patient getPatientDetails(String token) {
-        String email = tokenService.extractEmail(token);
-        if (email != null) {
-            return patientRepo.findByEmail(email);
+        VerifiedPrincipal principal = tokenService.getPrincipal(token, "patient");
+        if (principal != null) {
+            return patientRepo.findById(principal.getId()).orElse(null);
         }
         return null;
     }
@@ -1,19 +1,86 @@
 package com.project.back_end.services;
 
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.bulk.BulkWriteError;
+import com.project.back_end.config.Bulkhead;
 import com.project.back_end.models.Prescription;
+import com.project.back_end.repo.AppointmentRepository;
 import com.project.back_end.repo.PrescriptionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 @Service
 public class PrescriptionService {
 
+    private static final Logger log = LoggerFactory.getLogger(PrescriptionService.class);
+
     private final PrescriptionRepository prescriptionRepo;
+    private final AppointmentRepository appointmentRepo;
+    // Requests here hold a Mongo permit; their MySQL queries take a JDBC one too
+    private final Bulkhead jdbc;
+    private final TokenService tokenService;
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final int bulkChunkSize;
+
+    // Per-item failures listed in a bulk ingest report; the rest are only counted
+    private static final int MAX_REPORTED_FAILURES = 1000;
 
     @Autowired
-    public PrescriptionService(PrescriptionRepository prescriptionRepo) {
+    public PrescriptionService(PrescriptionRepository prescriptionRepo, AppointmentRepository appointmentRepo,
+            @Qualifier("jdbcBulkhead") Bulkhead jdbc, TokenService tokenService, MongoTemplate mongoTemplate, ObjectMapper objectMapper, Validator validator,
+            @Value("${prescription.bulk.chunk-size:500}") int bulkChunkSize) {
         this.prescriptionRepo = prescriptionRepo;
+        this.appointmentRepo = appointmentRepo;
+        this.jdbc = jdbc;
+        this.tokenService = tokenService;
+        this.mongoTemplate = mongoTemplate;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.bulkChunkSize = Math.max(1, bulkChunkSize);
+    }
+
+    // Spring Data does not create @Indexed indexes unless auto-index-creation is
+    // on, so the lookup index is ensured explicitly (a no-op when it exists).
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        try {
+            mongoTemplate.indexOps(Prescription.class).ensureIndex(new Index("appointmentId", Sort.Direction.ASC));
+        } catch (Exception e) {
+            log.warn("Could not ensure the prescriptions.appointmentId index", e);
+        }
     }
 
     @Transactional
@@ -22,7 +89,7 @@ public class PrescriptionService {
             prescriptionRepo.save(prescription);
             return 1;
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Failed to save prescription", e);
             return 0;
         }
     }
@@ -31,4 +98,153 @@ public class PrescriptionService {
     public Prescription getPrescription(Long appointmentId) {
         return prescriptionRepo.findByAppointmentId(appointmentId);
     }
+
+    // Prescriptions of all the doctor's appointments on the given day, keyed by
+    // appointment id in appointment time order. Appointments without a
+    // prescription are left out. Returns null if the token is not a doctor's.
+    public Map<Long, Prescription> getPrescriptionsForDay(String token, LocalDate date) {
+        VerifiedPrincipal doctor = tokenService.getPrincipal(token, "doctor");
+        if (doctor == null) {
+            return null;
+        }
+        List<Long> appointmentIds = jdbc.call(() -> appointmentRepo.findIdsByDoctorIdAndAppointmentDateBetween(
+                doctor.getId(), date.atStartOfDay(), date.atTime(LocalTime.MAX)));
+        Map<Long, Prescription> byAppointment = new LinkedHashMap<>();
+        if (appointmentIds.isEmpty()) {
+            return byAppointment;
+        }
+        Map<Long, Prescription> found = new LinkedHashMap<>();
+        for (Prescription prescription : prescriptionRepo.findByAppointmentIdIn(appointmentIds)) {
+            found.putIfAbsent(prescription.getAppointmentId(), prescription);
+        }
+        for (Long appointmentId : appointmentIds) {
+            Prescription prescription = found.get(appointmentId);
+            if (prescription != null) {
+                byAppointment.put(appointmentId, prescription);
+            }
+        }
+        return byAppointment;
+    }
+
+    // Which of the given appointments have a prescription: a distinct over the
+    // appointmentId index that never loads the documents themselves
+    public Set<Long> findPrescribedAppointmentIds(Collection<Long> appointmentIds) {
+        Query query = new Query(Criteria.where("appointmentId").in(appointmentIds));
+        return new HashSet<>(mongoTemplate.findDistinct(query, "appointmentId", Prescription.class, Long.class));
+    }
+
+    // Reads prescriptions from a JSON array or NDJSON stream one at a time,
+    // validates each and inserts the valid ones with unordered bulk writes of
+    // bulkChunkSize documents. An invalid or rejected item is reported by its
+    // position in the input and does not stop the rest; only malformed JSON ends
+    // the stream early.
+    public Map<String, Object> ingestPrescriptions(InputStream in) {
+        BulkIngest ingest = new BulkIngest();
+        try (MappingIterator<Prescription> items = objectMapper.readerFor(Prescription.class).readValues(in)) {
+            while (true) {
+                int index = ingest.received;
+                Prescription prescription;
+                try {
+                    if (!items.hasNextValue()) {
+                        break;
+                    }
+                    ingest.received++;
+                    prescription = items.nextValue();
+                } catch (JsonProcessingException e) {
+                    // A value that did not bind can be skipped; broken syntax cannot
+                    if (e instanceof JsonParseException) {
+                        ingest.fail(index, "Malformed JSON: " + e.getOriginalMessage());
+                        ingest.truncated = true;
+                        break;
+                    }
+                    ingest.fail(index, "Invalid prescription: " + e.getOriginalMessage());
+                    continue;
+                }
+                String violation = firstViolation(prescription);
+                if (violation != null) {
+                    ingest.fail(index, violation);
+                    continue;
+                }
+                ingest.add(index, prescription);
+                if (ingest.chunk.size() >= bulkChunkSize) {
+                    flush(ingest);
+                }
+            }
+        } catch (IOException e) {
+            ingest.fail(ingest.received, "Could not read input: " + e.getMessage());
+            ingest.truncated = true;
+        }
+        flush(ingest);
+        return ingest.report();
+    }
+
+    private String firstViolation(Prescription prescription) {
+        if (prescription == null) {
+            return "Prescription is null";
+        }
+        for (ConstraintViolation<Prescription> violation : validator.validate(prescription)) {
+            return violation.getPropertyPath() + " " + violation.getMessage();
+        }
+        return null;
+    }
+
+    private void flush(BulkIngest ingest) {
+        if (ingest.chunk.isEmpty()) {
+            return;
+        }
+        try {
+            ingest.inserted += mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Prescription.class)
+                    .insert(ingest.chunk)
+                    .execute()
+                    .getInsertedCount();
+        } catch (BulkOperationException e) {
+            // Unordered: everything but the listed documents was written
+            ingest.inserted += e.getResult().getInsertedCount();
+            for (BulkWriteError error : e.getErrors()) {
+                ingest.fail(ingest.chunkIndexes.get(error.getIndex()), error.getMessage());
+            }
+        } catch (Exception e) {
+            log.error("Bulk insert of {} prescriptions failed", ingest.chunk.size(), e);
+            for (int index : ingest.chunkIndexes) {
+                ingest.fail(index, "Write failed: " + e.getMessage());
+            }
+        }
+        ingest.chunk.clear();
+        ingest.chunkIndexes.clear();
+    }
+
+    private static final class BulkIngest {
+        private final List<Prescription> chunk = new ArrayList<>();
+        private final List<Integer> chunkIndexes = new ArrayList<>();
+        private final List<Map<String, Object>> failures = new ArrayList<>();
+        private int received;
+        private int inserted;
+        private int failed;
+        private boolean truncated;
+
+        void add(int index, Prescription prescription) {
+            chunk.add(prescription);
+            chunkIndexes.add(index);
+        }
+
+        void fail(int index, String error) {
+            failed++;
+            if (failures.size() < MAX_REPORTED_FAILURES) {
+                Map<String, Object> failure = new LinkedHashMap<>();
+                failure.put("index", index);
+                failure.put("error", error);
+                failures.add(failure);
+            }
+        }
+
+        Map<String, Object> report() {
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("received", received);
+            report.put("inserted", inserted);
+            report.put("failed", failed);
+            report.put("truncated", truncated);
+            report.put("failures", failures);
+            return report;
+        }
+    }
 }
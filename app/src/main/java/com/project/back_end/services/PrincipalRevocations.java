@@ -0,0 +1,97 @@
+package com.project.back_end.services;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.BitSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compact set of admin/doctor/patient ids whose tokens must no longer be
+ * accepted, one bitset per role.
+ *
+ * At startup every id between 1 and the current maximum that has no row is
+ * marked revoked, which covers principals deleted while the application was
+ * down. Later deletes are revoked here only on the instance that handled
+ * them; other instances find the row gone when TokenService checks it again,
+ * at the latest once the token's cache entry expires. Revocations are rare,
+ * so each one publishes a fresh copy of the bitset and reads never lock.
+ */
+@Component
+public class PrincipalRevocations {
+
+    private static final Map<String, String> TABLES = Map.of(
+            "admin", "admins",
+            "doctor", "doctor",
+            "patient", "patient");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Map<String, BitSet> revoked = new ConcurrentHashMap<>();
+    // Ids beyond int range cannot live in a BitSet
+    private final Map<String, Set<Long>> revokedLarge = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    public PrincipalRevocations(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        ensureLoaded();
+    }
+
+    public boolean isRevoked(String role, long id) {
+        ensureLoaded();
+        if (id > Integer.MAX_VALUE) {
+            Set<Long> ids = revokedLarge.get(role);
+            return ids != null && ids.contains(id);
+        }
+        BitSet bits = revoked.get(role);
+        return id <= 0 || (bits != null && bits.get((int) id));
+    }
+
+    public synchronized void revoke(String role, long id) {
+        ensureLoaded();
+        if (id > Integer.MAX_VALUE) {
+            revokedLarge.computeIfAbsent(role, r -> ConcurrentHashMap.newKeySet()).add(id);
+            return;
+        }
+        BitSet copy = (BitSet) revoked.getOrDefault(role, new BitSet()).clone();
+        copy.set((int) id);
+        revoked.put(role, copy);
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (loaded) {
+                return;
+            }
+            TABLES.forEach((role, table) -> revoked.put(role, loadGaps(table)));
+            loaded = true;
+        }
+    }
+
+    private BitSet loadGaps(String table) {
+        BitSet gaps = new BitSet();
+        long[] expected = {1};
+        jdbcTemplate.query("SELECT id FROM " + table + " ORDER BY id", rs -> {
+            long id = rs.getLong(1);
+            if (id > Integer.MAX_VALUE) {
+                return;
+            }
+            if (id > expected[0]) {
+                gaps.set((int) expected[0], (int) id);
+            }
+            expected[0] = id + 1;
+        });
+        return gaps;
+    }
+}
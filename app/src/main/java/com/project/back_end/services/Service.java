@@ -1,31 +1,73 @@
 package com.project.back_end.services;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.back_end.config.EntityCacheStatistics;
 import com.project.back_end.models.Admin;
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Patient;
 import com.project.back_end.repo.AdminRepository;
 import com.project.back_end.repo.AppointmentRepository;
 import com.project.back_end.repo.DoctorRepository;
 import com.project.back_end.repo.PatientRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongFunction;
+import java.util.function.ToLongFunction;
 
 @org.springframework.stereotype.Service
 public class Service {
 
+    // Rows fetched per round trip when streaming a whole table
+    private static final int STREAM_BATCH = 500;
+    private static final int MAX_PAGE_SIZE = 500;
+
     private final TokenService tokenService;
     private final AdminRepository adminRepo;
     private final DoctorRepository doctorRepo;
     private final AppointmentRepository appointmentRepo;
     private final PatientRepository patientRepo;
     private final PatientService patientService;
+    private final DoctorDirectoryIndex doctorDirectory;
+    private final AvailabilityIndex availabilityIndex;
+    private final DashboardCounters dashboardCounters;
+    private final AppointmentOutbox outbox;
+    private final ObjectMapper objectMapper;
+    private final EntityCacheStatistics entityCacheStatistics;
+    private final CredentialVerifier credentials;
+    private final ColumnUpdates columnUpdates;
 
     @Autowired
     public Service(TokenService tokenService, AdminRepository adminRepo, DoctorRepository doctorRepo,
-            AppointmentRepository appointmentRepo, PatientRepository patientRepo, PatientService patientService) {
+            AppointmentRepository appointmentRepo, PatientRepository patientRepo, PatientService patientService,
+            DoctorDirectoryIndex doctorDirectory, AvailabilityIndex availabilityIndex,
+            DashboardCounters dashboardCounters, AppointmentOutbox outbox, ObjectMapper objectMapper,
+            EntityCacheStatistics entityCacheStatistics, CredentialVerifier credentials,
+            ColumnUpdates columnUpdates) {
         this.tokenService = tokenService;
         this.adminRepo = adminRepo;
         this.doctorRepo = doctorRepo;
         this.appointmentRepo = appointmentRepo;
         this.patientRepo = patientRepo;
         this.patientService = patientService;
+        this.doctorDirectory = doctorDirectory;
+        this.availabilityIndex = availabilityIndex;
+        this.dashboardCounters = dashboardCounters;
+        this.outbox = outbox;
+        this.objectMapper = objectMapper;
+        this.entityCacheStatistics = entityCacheStatistics;
+        this.credentials = credentials;
+        this.columnUpdates = columnUpdates;
     }
 
     public String validateToken(String token, String role) {
@@ -34,64 +76,34 @@ public class Service {
 
     public String validateAdmin(Admin admin) {
         Admin existingAdmin = adminRepo.findByUsername(admin.getUsername());
-        if (existingAdmin != null && existingAdmin.getPassword().equals(admin.getPassword())) {
-            return "token:" + tokenService.generateToken(existingAdmin.getUsername());
+        if (existingAdmin == null) {
+            return "Invalid credentials";
+        }
+        String legacy = existingAdmin.getPassword();
+        CredentialVerifier.Result result = credentials.verify(admin.getPassword(), legacy,
+                hash -> columnUpdates.adminPassword(existingAdmin.getId(), legacy, hash));
+        if (result == CredentialVerifier.Result.BUSY) {
+            return CredentialVerifier.BUSY;
+        }
+        if (result == CredentialVerifier.Result.MATCH) {
+            return "token:" + tokenService.generateToken(existingAdmin.getUsername(), "admin", existingAdmin.getId());
         }
         return "Invalid credentials";
     }
 
-    // Proxy methods to services if needed, or direct implementation if simple
     public java.util.List<com.project.back_end.models.Doctor> filterDoctor(String name, String time,
             String speciality) {
-        // This seems to link to DoctorService or Repo, but based on instructions:
-        // "This method provides filtering functionality for doctors"
-        // Since DoctorService has detailed methods, we might need to inject
-        // DoctorService too or use Repo directly.
-        // For now, let's keep it simple or delegate if simpler.
-        // Actually, the Service.java comments imply it does the logic.
-        // But DoctorService has better breakdown. Let's implementing logic here if
-        // requested or call repos.
-
-        // However, standard circular dependency risks exist if Service depends on
-        // DoctorService and vice versa.
-        // Let's implement logic using Repos directly here as per "Service.java" purpose
-        // described in its comments.
-
-        if (!"null".equals(name) && !"all".equals(speciality)) {
-            return doctorRepo.findByNameAndSpeciality(name, speciality);
-        } else if (!"null".equals(name)) {
-            return doctorRepo.findByNameContainingIgnoreCase(name);
-        } else if (!"all".equals(speciality)) {
-            return doctorRepo.findBySpecialityContainingIgnoreCase(speciality);
-        }
-        return doctorRepo.findAllWithAvailableTimes();
-        // Time filtering is complex and might be better handled in DoctorService or via
-        // custom logic here if required.
-        // Given complexity, let's assume basic filtering first.
+        // Answered from the shared directory index; "null" name / "all" speciality
+        // mean no filter. Time filtering is left to DoctorService.filterDoctors.
+        return doctorDirectory.search("null".equals(name) ? null : name, null,
+                "all".equals(speciality) ? null : speciality);
     }
 
     public int validateAppointment(Long doctorId, java.time.LocalDateTime time) {
-        com.project.back_end.models.Doctor doctor = doctorRepo.findById(doctorId).orElse(null);
-        if (doctor == null)
-            return -1;
-
-        // Check if time matches any available slot start time
-        // Available times are Strings (HH:mm:ss or HH:mm)
-        boolean isSlotAvailable = doctor.getAvailableTimes().stream()
-                .anyMatch(t -> {
-                    try {
-                        return java.time.LocalTime.parse(t).equals(time.toLocalTime());
-                    } catch (Exception e) {
-                        return false;
-                    }
-                });
-
-        if (isSlotAvailable) {
-            // Check if already booked
-            // This logic usually needs to check AppointmentRepo for conflicts
-            return 1;
-        }
-        return 0;
+        // Slot starts are answered from the availability index. Whether the slot
+        // is free is left to AppointmentService.saveAppointment, which confirms
+        // the index against the database under the slot lock.
+        return availabilityIndex.isConfiguredSlot(doctorId, time);
     }
 
     public boolean validatePatient(com.project.back_end.models.Patient patient) {
@@ -101,16 +113,24 @@ public class Service {
 
     public String validatePatientLogin(com.project.back_end.models.Login login) {
         com.project.back_end.models.Patient patient = patientRepo.findByEmail(login.getEmail());
+        if (patient == null) {
+            return "Invalid credentials";
+        }
         // Patient model has typo "getPasssword"
-        if (patient != null && patient.getPasssword().equals(login.getPassword())) {
-            return "token:" + tokenService.generateToken(patient.getEmail());
+        String legacy = patient.getPasssword();
+        CredentialVerifier.Result result = credentials.verify(login.getPassword(), legacy,
+                hash -> columnUpdates.patientPassword(patient.getId(), legacy, hash));
+        if (result == CredentialVerifier.Result.BUSY) {
+            return CredentialVerifier.BUSY;
+        }
+        if (result == CredentialVerifier.Result.MATCH) {
+            return "token:" + tokenService.generateToken(patient.getEmail(), "patient", patient.getId());
         }
         return "Invalid credentials";
     }
 
     public Object filterPatient(String token, String condition, String name) {
-        String email = tokenService.extractEmail(token);
-        com.project.back_end.models.Patient patient = patientRepo.findByEmail(email);
+        VerifiedPrincipal patient = tokenService.getPrincipal(token, "patient");
         if (patient == null)
             return null;
 
@@ -120,25 +140,88 @@ public class Service {
     // Admin Dashboard Features
 
     public java.util.Map<String, Long> getDashboardStats() {
-        java.util.Map<String, Long> stats = new java.util.HashMap<>();
-        stats.put("doctors", doctorRepo.count());
-        stats.put("patients", patientRepo.count());
-        stats.put("appointments", appointmentRepo.count());
-        return stats;
+        // Maintained by the write paths; no COUNT(*) per request
+        return dashboardCounters.snapshot();
+    }
+
+    public java.util.Map<String, Long> getTokenCacheStats() {
+        return tokenService.getCacheStats();
+    }
+
+    public Map<String, Map<String, Long>> getEntityCacheStats() {
+        return entityCacheStatistics.snapshot();
+    }
+
+    // Writes every patient as a JSON array, one keyset batch at a time, so heap
+    // use does not grow with the table.
+    public void writeAllPatients(OutputStream out) throws IOException {
+        writeInBatches(out, afterId -> patientRepo.findPageAfterId(afterId, Limit.of(STREAM_BATCH)), Patient::getId);
+    }
+
+    public void writeAllAppointments(OutputStream out) throws IOException {
+        writeInBatches(out, afterId -> appointmentRepo.findPageAfterId(afterId, Limit.of(STREAM_BATCH)),
+                Appointment::getId);
+    }
+
+    public Map<String, Object> getPatientsPage(long afterId, int limit) {
+        List<Patient> patients = patientRepo.findPageAfterId(afterId, Limit.of(pageSize(limit)));
+        Map<String, Object> page = new HashMap<>();
+        page.put("patients", patients);
+        page.put("nextAfterId", patients.size() < pageSize(limit) ? null : patients.get(patients.size() - 1).getId());
+        return page;
+    }
+
+    // Ordered by id, or by appointment date (ties broken by id) when sort is "date".
+    // The cursor for the next page is returned alongside the rows.
+    public Map<String, Object> getAppointmentsPage(String sort, long afterId, LocalDateTime afterDate, int limit) {
+        Limit pageLimit = Limit.of(pageSize(limit));
+        List<Appointment> appointments;
+        if ("date".equalsIgnoreCase(sort)) {
+            List<Long> ids = afterDate == null
+                    ? appointmentRepo.findFirstIdPageByDate(pageLimit)
+                    : appointmentRepo.findIdPageAfterDate(afterDate, afterId, pageLimit);
+            appointments = ids.isEmpty() ? new ArrayList<>() : appointmentRepo.findAllByIdInOrderByDate(ids);
+        } else {
+            appointments = appointmentRepo.findPageAfterId(afterId, pageLimit);
+        }
+
+        Map<String, Object> page = new HashMap<>();
+        page.put("appointments", appointments);
+        Appointment last = appointments.size() < pageSize(limit) ? null : appointments.get(appointments.size() - 1);
+        page.put("nextAfterId", last != null ? last.getId() : null);
+        if ("date".equalsIgnoreCase(sort)) {
+            page.put("nextAfterDate", last != null ? last.getAppointmentDate() : null);
+        }
+        return page;
     }
 
-    public java.util.List<com.project.back_end.models.Patient> getAllPatients() {
-        return patientRepo.findAll();
+    private static int pageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
     }
 
-    public java.util.List<com.project.back_end.models.Appointment> getAllAppointments() {
-        return appointmentRepo.findAll();
+    private <T> void writeInBatches(OutputStream out, LongFunction<List<T>> nextBatch, ToLongFunction<T> idOf)
+            throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.writeStartArray();
+        long afterId = 0;
+        List<T> batch;
+        do {
+            batch = nextBatch.apply(afterId);
+            for (T row : batch) {
+                generator.writeObject(row);
+            }
+            generator.flush();
+            if (!batch.isEmpty()) {
+                afterId = idOf.applyAsLong(batch.get(batch.size() - 1));
+            }
+        } while (batch.size() == STREAM_BATCH);
+        generator.writeEndArray();
+        generator.flush();
     }
 
     public java.util.List<com.project.back_end.models.Appointment> getDoctorAppointments(String token,
             java.time.LocalDate date, String patientName) {
-        String email = tokenService.extractEmail(token);
-        com.project.back_end.models.Doctor doctor = doctorRepo.findByEmail(email);
+        VerifiedPrincipal doctor = tokenService.getPrincipal(token, "doctor");
 
         if (doctor == null) {
             return java.util.Collections.emptyList();
@@ -155,11 +238,20 @@ public class Service {
         return appointmentRepo.findByDoctorIdAndAppointmentDateBetween(doctor.getId(), start, end);
     }
 
+    // One transaction, so the status change and its outbox event commit together
+    @Transactional
     public boolean updateAppointmentStatus(Long id, String status) {
         try {
+            String oldStatus = appointmentRepo.findStatusById(id);
             appointmentRepo.updateStatus(status, id);
+            if (oldStatus != null) {
+                outbox.statusChanged(id, oldStatus, status);
+                TransactionHooks.afterCommit(() -> dashboardCounters.appointmentStatusChanged(oldStatus, status));
+            }
             return true;
         } catch (Exception e) {
+            // Roll back quietly rather than failing the commit with UnexpectedRollbackException
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
             return false;
         }
     }
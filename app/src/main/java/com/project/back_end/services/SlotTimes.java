@@ -0,0 +1,32 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.TimeSlot;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+// Minute-of-day helpers for matching appointment times against TimeSlot starts.
+final class SlotTimes {
+
+    static final int MINUTES_PER_DAY = TimeSlot.MINUTES_PER_DAY;
+
+    private SlotTimes() {
+    }
+
+    // Returns the start of the slot text as minute-of-day, or -1 if it is not a slot
+    static int startMinute(String slot) {
+        TimeSlot parsed = TimeSlot.parse(slot);
+        return parsed != null ? parsed.getStartMinute() : -1;
+    }
+
+    static int minuteOf(LocalDateTime dateTime) {
+        return dateTime == null ? -1 : minuteOf(dateTime.toLocalTime());
+    }
+
+    static int minuteOf(LocalTime time) {
+        if (time.getSecond() != 0 || time.getNano() != 0) {
+            return -1;
+        }
+        return time.getHour() * 60 + time.getMinute();
+    }
+}
@@ -1,75 +1,263 @@
 package com.project.back_end.services;
 
-import com.project.back_end.models.Admin;
+import com.project.back_end.config.Bulkhead;
+import com.project.back_end.config.BulkheadFullException;
 import com.project.back_end.repo.AdminRepository;
 import com.project.back_end.repo.DoctorRepository;
 import com.project.back_end.repo.PatientRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class TokenService {
 
+    // Signed claims carried by tokens issued since role/id claims were introduced.
+    // Tokens without them are resolved through the repositories instead, which
+    // keeps older tokens working until they expire (7 days).
+    private static final String ROLE_CLAIM = "role";
+    private static final String PRINCIPAL_ID_CLAIM = "pid";
+    private static final String[] ROLES = {"admin", "doctor", "patient"};
+
     private final AdminRepository adminRepo;
     private final DoctorRepository doctorRepo;
     private final PatientRepository patientRepo;
+    private final PrincipalRevocations revocations;
+    private final MeterRegistry meterRegistry;
+    // Cache misses query the database, also from @InMemory handlers that hold no permit
+    private final Bulkhead jdbc;
 
     @Value("${jwt.secret}")
     private String jwtSecret;
 
-    public TokenService(AdminRepository adminRepo, DoctorRepository doctorRepo, PatientRepository patientRepo) {
+    @Value("${jwt.cache.max-entries:10000}")
+    private int cacheMaxEntries;
+
+    @Value("${jwt.cache.ttl-seconds:600}")
+    private long cacheTtlSeconds;
+
+    // Built once; the key and parser are immutable and thread-safe
+    private SecretKey signingKey;
+    private JwtParser parser;
+    private VerifiedTokenCache cache;
+
+    public TokenService(AdminRepository adminRepo, DoctorRepository doctorRepo, PatientRepository patientRepo,
+            PrincipalRevocations revocations, MeterRegistry meterRegistry,
+            @Qualifier("jdbcBulkhead") Bulkhead jdbc) {
         this.adminRepo = adminRepo;
         this.doctorRepo = doctorRepo;
         this.patientRepo = patientRepo;
+        this.revocations = revocations;
+        this.meterRegistry = meterRegistry;
+        this.jdbc = jdbc;
     }
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parser().verifyWith(signingKey).build();
+        cache = new VerifiedTokenCache(cacheMaxEntries, cacheTtlSeconds * 1000);
     }
 
-    public String generateToken(String email) {
+    public String generateToken(String email, String role, long id) {
         return Jwts.builder()
                 .setSubject(email)
+                .claim(ROLE_CLAIM, role)
+                .claim(PRINCIPAL_ID_CLAIM, id)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60 * 24 * 7)) // 7 days
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
     public String extractEmail(String token) {
-        return Jwts.parser().verifyWith(getSigningKey()).build().parseSignedClaims(token).getPayload().getSubject();
+        VerifiedTokenCache.Entry entry = cache.get(VerifiedTokenCache.digest(token));
+        if (entry != null) {
+            return entry.email;
+        }
+        return parser.parseSignedClaims(token).getPayload().getSubject();
     }
 
     public boolean validateToken(String token, String role) {
         try {
-            String email = extractEmail(token); // Extract email first to use in role validation
-            Jwts.parser().verifyWith(getSigningKey()).build().parseSignedClaims(token);
-            // Also validate role if needed, e.g. check subject or claim
+            return getPrincipal(token, role) != null;
+        } catch (BulkheadFullException e) {
+            // Busy, not invalid: answered 503 rather than 401
+            throw e;
+        } catch (Exception e) {
+            return false;
+        }
+    }
 
-            if (email == null) {
-                return false;
+    // Resolves the token to the admin/doctor/patient it was issued for, or null if
+    // the token is invalid, expired, or does not belong to an entity of that role.
+    public VerifiedPrincipal getPrincipal(String token, String role) {
+        long start = System.nanoTime();
+        VerifiedPrincipal principal = resolvePrincipal(token, role);
+        meterRegistry.timer("token.validation", "role", String.valueOf(role),
+                "outcome", principal != null ? "valid" : "invalid")
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return principal;
+    }
+
+    private VerifiedPrincipal resolvePrincipal(String token, String role) {
+        if (token == null || role == null) {
+            return null;
+        }
+        String key = VerifiedTokenCache.digest(token);
+        VerifiedTokenCache.Entry entry = cache.get(key);
+        boolean hit = entry != null;
+        if (entry == null) {
+            entry = verify(key, token);
+            if (entry == null) {
+                return null;
             }
+        }
 
-            switch (role) {
-                case "admin":
-                    return adminRepo.findByUsername(email) != null;
-                case "doctor":
-                    return doctorRepo.findByEmail(email) != null;
-                case "patient":
-                    return patientRepo.findByEmail(email) != null;
-                default:
-                    return false;
+        Long id = entry.roleIds.get(role);
+        if (id == null) {
+            hit = false;
+            String email = entry.email;
+            id = jdbc.call(() -> lookupId(role, email));
+            if (id == null) {
+                // Unknown role name; nothing worth caching
+                cache.recordMiss();
+                return null;
+            }
+            entry.roleIds.put(role, id);
+        }
+        if (hit) {
+            cache.recordHit();
+        } else {
+            cache.recordMiss();
+        }
+        if (id == VerifiedTokenCache.NOT_FOUND || revocations.isRevoked(role, id)) {
+            return null;
+        }
+        return new VerifiedPrincipal(entry.email, role, id);
+    }
+
+    // The principal a token was issued for, whatever its role, or null if the
+    // token does not verify. Never looks anyone up by email: a legacy token
+    // resolves only to roles it has already been checked against.
+    public VerifiedPrincipal getBoundPrincipal(String token) {
+        if (token == null) {
+            return null;
+        }
+        String key = VerifiedTokenCache.digest(token);
+        VerifiedTokenCache.Entry entry = cache.get(key);
+        if (entry == null) {
+            entry = verify(key, token);
+            if (entry == null) {
+                return null;
             }
-        } catch (Exception e) {
-            return false;
         }
+        for (String role : ROLES) {
+            Long id = entry.roleIds.get(role);
+            if (id != null && id != VerifiedTokenCache.NOT_FOUND && !revocations.isRevoked(role, id)) {
+                return new VerifiedPrincipal(entry.email, role, id);
+            }
+        }
+        return null;
+    }
+
+    // Called when an admin/doctor/patient is changed so that cached resolutions
+    // of legacy tokens are looked up again.
+    public void invalidatePrincipal(String role, long id) {
+        cache.invalidate(role, id);
+    }
+
+    // Called when an admin/doctor/patient is deleted; its tokens stop validating
+    // immediately, whichever format they were issued in.
+    public void revokePrincipal(String role, long id) {
+        revocations.revoke(role, id);
+        cache.invalidate(role, id);
+    }
+
+    public Map<String, Long> getCacheStats() {
+        return cache.stats();
+    }
 
+    // Parses and caches a token that is not cached yet, or returns null if its
+    // signature, expiry or subject does not check out
+    private VerifiedTokenCache.Entry verify(String key, String token) {
+        Claims claims;
+        try {
+            claims = parser.parseSignedClaims(token).getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+        if (claims.getSubject() == null) {
+            return null;
+        }
+        long expiresAt = claims.getExpiration() != null ? claims.getExpiration().getTime() : Long.MAX_VALUE;
+        // Bound before it is published: a concurrent lookup on a half-built entry
+        // would fill in a role by email that the claims rule out
+        VerifiedTokenCache.Entry entry = cache.newEntry(claims.getSubject(), expiresAt);
+        bindClaims(entry, claims);
+        cache.put(key, entry);
+        return entry;
+    }
+
+    // A token carrying role/id claims answers every role check itself, so all
+    // roles are resolved up front. The principal's row is still checked once
+    // per cache entry: a delete handled by another instance never reaches this
+    // instance's revocations, so the cache TTL bounds how long its tokens live on.
+    private void bindClaims(VerifiedTokenCache.Entry entry, Claims claims) {
+        String boundRole = claims.get(ROLE_CLAIM, String.class);
+        Number boundId = claims.get(PRINCIPAL_ID_CLAIM, Number.class);
+        if (boundRole == null || boundId == null) {
+            return;
+        }
+        long id = boundId.longValue();
+        boolean exists = jdbc.call(() -> principalExists(boundRole, id));
+        for (String role : ROLES) {
+            entry.roleIds.put(role, role.equals(boundRole) && exists ? id : VerifiedTokenCache.NOT_FOUND);
+        }
+    }
+
+    private boolean principalExists(String role, long id) {
+        switch (role) {
+            case "admin":
+                return adminRepo.existsById(id);
+            case "doctor":
+                return doctorRepo.existsById(id);
+            case "patient":
+                return patientRepo.existsById(id);
+            default:
+                return false;
+        }
+    }
+
+    private Long lookupId(String role, String email) {
+        Long id;
+        switch (role) {
+            case "admin":
+                id = adminRepo.findIdByUsername(email);
+                break;
+            case "doctor":
+                id = doctorRepo.findIdByEmail(email);
+                break;
+            case "patient":
+                id = patientRepo.findIdByEmail(email);
+                break;
+            default:
+                return null;
+        }
+        return id != null ? id : VerifiedTokenCache.NOT_FOUND;
     }
 }
@@ -0,0 +1,27 @@
+package com.project.back_end.services;
+
+// The identity behind a token that has passed signature, expiry and role checks.
+public class VerifiedPrincipal {
+
+    private final String email;
+    private final String role;
+    private final long id;
+
+    public VerifiedPrincipal(String email, String role, long id) {
+        this.email = email;
+        this.role = role;
+        this.id = id;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public long getId() {
+        return id;
+    }
+}
@@ -0,0 +1,136 @@
+package com.project.back_end.services;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Bounded cache of tokens that already passed signature verification, keyed by
+// a SHA-256 digest of the token so raw tokens are never held in memory.
+// Each entry remembers the subject and, per role, the resolved entity id (or
+// NOT_FOUND), so repeat validations need neither JWT parsing nor a query.
+class VerifiedTokenCache {
+
+    static final long NOT_FOUND = -1L;
+
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    private final long maxTtlMillis;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    VerifiedTokenCache(int maxEntries, long maxTtlMillis) {
+        this.maxEntries = maxEntries;
+        this.maxTtlMillis = maxTtlMillis;
+    }
+
+    static String digest(String token) {
+        byte[] hash = SHA256.get().digest(token.getBytes(StandardCharsets.UTF_8));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+    }
+
+    Entry get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt <= System.currentTimeMillis()) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry;
+    }
+
+    // Caps the entry's lifetime so negative role lookups and anything missed by
+    // invalidation cannot outlive the configured TTL. The entry is not visible
+    // to other threads until it is put.
+    Entry newEntry(String email, long tokenExpiresAt) {
+        long expiresAt = Math.min(tokenExpiresAt, System.currentTimeMillis() + maxTtlMillis);
+        return new Entry(email, expiresAt);
+    }
+
+    void put(String key, Entry entry) {
+        if (entries.size() >= maxEntries) {
+            makeRoom();
+        }
+        entries.put(key, entry);
+    }
+
+    void recordHit() {
+        hits.increment();
+    }
+
+    void recordMiss() {
+        misses.increment();
+    }
+
+    // Drops every cached token that resolved to the given principal.
+    void invalidate(String role, long id) {
+        entries.values().removeIf(entry -> {
+            Long cached = entry.roleIds.get(role);
+            if (cached != null && cached == id) {
+                invalidations.increment();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    Map<String, Long> stats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("size", (long) entries.size());
+        stats.put("hits", hits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("evictions", evictions.sum());
+        stats.put("invalidations", invalidations.sum());
+        return stats;
+    }
+
+    private void makeRoom() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> {
+            if (entry.expiresAt <= now) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        });
+        // Still full: drop an arbitrary tenth rather than paying for strict LRU
+        // bookkeeping on every read.
+        int toDrop = entries.size() - maxEntries + Math.max(1, maxEntries / 10);
+        Iterator<Entry> it = entries.values().iterator();
+        while (toDrop > 0 && it.hasNext()) {
+            it.next();
+            it.remove();
+            evictions.increment();
+            toDrop--;
+        }
+    }
+
+    static final class Entry {
+        final String email;
+        final long expiresAt;
+        final Map<String, Long> roleIds = new ConcurrentHashMap<>(4);
+
+        Entry(String email, long expiresAt) {
+            this.email = email;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -1,5 +1,5 @@
 // doctorDashboard.js
-import { getDoctorAppointments, getDoctorDetails, updateDoctor, updateAvailability } from "./services/doctorServices.js";
+import { getDoctorDay, getDoctorDetails, updateDoctor, updateAvailability } from "./services/doctorServices.js";
 
 const grid = document.getElementById("appointmentsGrid");
 const datePicker = document.getElementById("datePicker");
@@ -138,14 +138,14 @@ async function loadDashboard() {
   grid.innerHTML = '<p class="loading-text">Loading appointments...</p>';
 
   try {
-    const appointments = await getDoctorAppointments(selectedDate, token);
+    const day = await getDoctorDay(selectedDate, token);
 
-    if (appointments === null) {
+    if (day === null) {
       grid.innerHTML = '<p class="error-text">Failed to load schedule. Please check connection.</p>';
       return;
     }
 
-    currentAppointments = appointments || [];
+    currentAppointments = day.appointments || [];
     updateStats(currentAppointments);
     renderAppointments(currentAppointments);
   } catch (err) {
@@ -207,7 +207,7 @@ function createAppointmentCard(app) {
   card.className = "appt-card";
 
   const patientName = app.patientName || app.patient?.name || "Unknown";
-  const patientPhone = app.patient?.phone || "N/A";
+  const patientPhone = app.patientPhone || app.patient?.phone || "N/A";
   // Parse Time
   let timeStr = "TBD";
   if (app.appointmentDate) {
@@ -253,6 +253,7 @@ function createAppointmentCard(app) {
                 <p><strong>👤 ${patientName}</strong></p>
                 <p>📞 ${patientPhone}</p>
                 <p>🆔 #${app.id}</p>
+                ${app.prescribed ? '<p>💊 Prescription added</p>' : ''}
             </div>
         </div>
         ${showActions ? `
@@ -42,6 +42,33 @@ export async function getDoctorAppointments(date, token, patientName = "null") {
   }
 }
 
+/**
+ * Fetch the doctor's day view: appointments, patient summaries and prescription flags in one call.
+ * Endpoint: GET /doctor/day/{date}/{token}
+ * @param {string} date - Local Date String (YYYY-MM-DD)
+ * @param {string} token - Auth Token
+ * @returns {Promise<object|null>} { date, prescriptionsLoaded, appointments } or null on failure
+ */
+export async function getDoctorDay(date, token) {
+  try {
+    const response = await fetch(`${DOCTOR_API}/day/${date}/${encodeURIComponent(token)}`, {
+      method: 'GET',
+      headers: {
+        'Content-Type': 'application/json'
+      }
+    });
+
+    if (response.ok) {
+      return await response.json();
+    }
+    console.error("Failed to fetch day view:", response.status);
+    return null;
+  } catch (error) {
+    console.error("Error fetching doctor day view:", error);
+    return null;
+  }
+}
+
 /**
  * Update appointment status
  * Endpoint: PATCH /appointments/status/{id}/{status}/{token}
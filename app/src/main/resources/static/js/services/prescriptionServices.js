@@ -44,3 +44,23 @@ export async function getPrescription(appointmentId, token) {
     throw error;
   }
 }
+
+// All of the doctor's prescriptions for a day (YYYY-MM-DD), keyed by appointment id
+export async function getPrescriptionsForDay(date, token) {
+  try {
+    const response = await fetch(`${PRESCRITION_API}/doctor/${date}/${token}`, {
+      method: "GET",
+      headers: {
+        "Content-Type": "application/json"
+      }
+    });
+
+    if (!response.ok) {
+      throw new Error("Unable to fetch prescriptions");
+    }
+    return await response.json();
+  } catch (error) {
+    console.error("Error :: getPrescriptionsForDay ::", error);
+    return {};
+  }
+}
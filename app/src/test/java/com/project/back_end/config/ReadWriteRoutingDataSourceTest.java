@@ -0,0 +1,129 @@
+package com.project.back_end.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Read-only transactions go to the replica only while the lag monitor allows
+// it; everything else always goes to the primary.
+class ReadWriteRoutingDataSourceTest {
+
+	private final Connection primaryConnection = mock(Connection.class);
+	private final Connection replicaConnection = mock(Connection.class);
+	private final ResultSet lagRow = mock(ResultSet.class);
+	private final ResultSetMetaData meta = mock(ResultSetMetaData.class);
+	private DataSource lagSource;
+
+	private ReplicaLagMonitor monitor;
+	private ReadWriteRoutingDataSource routing;
+
+	@BeforeEach
+	void setUp() throws SQLException {
+		HikariDataSource primary = mock(HikariDataSource.class);
+		HikariDataSource replica = mock(HikariDataSource.class);
+		when(primary.getConnection()).thenReturn(primaryConnection);
+		when(replica.getConnection()).thenReturn(replicaConnection);
+
+		lagSource = mock(DataSource.class);
+		Connection lagConnection = mock(Connection.class);
+		Statement statement = mock(Statement.class);
+		when(lagSource.getConnection()).thenReturn(lagConnection);
+		when(lagConnection.createStatement()).thenReturn(statement);
+		when(statement.executeQuery(anyString())).thenReturn(lagRow);
+		when(lagRow.getMetaData()).thenReturn(meta);
+		when(meta.getColumnCount()).thenReturn(2);
+		when(meta.getColumnLabel(1)).thenReturn("Replica_IO_State");
+		when(meta.getColumnLabel(2)).thenReturn("Seconds_Behind_Source");
+
+		monitor = new ReplicaLagMonitor(lagSource, 5, "SHOW REPLICA STATUS", false);
+		routing = new ReadWriteRoutingDataSource(primary, replica, monitor, new SimpleMeterRegistry());
+	}
+
+	@AfterEach
+	void tearDown() {
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+	}
+
+	@Test
+	void readsStayOnThePrimaryUntilTheReplicaIsChecked() throws SQLException {
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		assertSame(primaryConnection, routing.getConnection());
+	}
+
+	@Test
+	void readOnlyTransactionsUseAReplicaThatIsInSync() throws SQLException {
+		replicaLag(2, false);
+		assertTrue(monitor.isUsable());
+
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+		assertSame(replicaConnection, routing.getConnection());
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+		assertSame(primaryConnection, routing.getConnection());
+	}
+
+	@Test
+	void readsFallBackWhenTheReplicaLagsOrStopsReplicating() throws SQLException {
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+		replicaLag(30, false);
+		assertFalse(monitor.isUsable());
+		assertSame(primaryConnection, routing.getConnection());
+
+		replicaLag(0, true);
+		assertFalse(monitor.isUsable());
+		assertSame(primaryConnection, routing.getConnection());
+	}
+
+	@Test
+	void anUnreachableReplicaIsNotUsed() throws SQLException {
+		replicaLag(0, false);
+		assertTrue(monitor.isUsable());
+		when(lagRow.next()).thenThrow(new SQLException("Communications link failure"));
+		monitor.check();
+		assertFalse(monitor.isUsable());
+	}
+
+	@Test
+	void aReplicaWithoutStatusIsOnlyUsedWhenAssumedInSync() throws SQLException {
+		when(lagRow.next()).thenReturn(false);
+		monitor.check();
+		assertFalse(monitor.isUsable());
+
+		ReplicaLagMonitor assumed = new ReplicaLagMonitor(lagSource, 5, "SHOW REPLICA STATUS", true);
+		assumed.check();
+		assertTrue(assumed.isUsable());
+	}
+
+	@Test
+	void statusWithoutALagColumnIsNotUsed() throws SQLException {
+		when(meta.getColumnLabel(2)).thenReturn("Replica_SQL_Running");
+		replicaLag(0, false);
+		assertFalse(monitor.isUsable());
+		assertEquals(-1, monitor.getLagSeconds());
+	}
+
+	private void replicaLag(long seconds, boolean stopped) throws SQLException {
+		when(lagRow.next()).thenReturn(true);
+		when(lagRow.getLong(2)).thenReturn(seconds);
+		when(lagRow.wasNull()).thenReturn(stopped);
+		monitor.check();
+	}
+}
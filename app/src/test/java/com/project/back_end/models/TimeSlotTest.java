@@ -0,0 +1,26 @@
+package com.project.back_end.models;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// The text a slot is served as must parse back to the same slot, so
+// getAvailableTimes() output can be posted to updateAvailability unchanged.
+class TimeSlotTest {
+
+	@Test
+	void slotEndingAtMidnightRoundTrips() {
+		TimeSlot slot = new TimeSlot(23 * 60, TimeSlot.MINUTES_PER_DAY);
+		assertEquals("23:00 - 00:00", slot.toString());
+		assertEquals(slot, TimeSlot.parse(slot.toString()));
+		// As served before midnight was written "00:00"
+		assertEquals(slot, TimeSlot.parse("23:00 - 24:00"));
+	}
+
+	@Test
+	void daytimeSlotRoundTrips() {
+		TimeSlot slot = TimeSlot.parse("09:00-10:30");
+		assertEquals("09:00 - 10:30", slot.toString());
+		assertEquals(slot, TimeSlot.parse(slot.toString()));
+	}
+}
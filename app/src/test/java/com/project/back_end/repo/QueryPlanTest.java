@@ -0,0 +1,398 @@
+package com.project.back_end.repo;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Runs every @Query of the appointment and doctor repositories against a
+// seeded database, EXPLAINs the SQL it issued and fails if a table is read in
+// full. Queries that scan on purpose are listed in FULL_SCANS with the reason.
+//
+// Runs on H2 in MySQL mode by default. To check the plans MySQL itself picks,
+// point it at a scratch schema (its tables are dropped afterwards):
+//   mvn test -Dtest=QueryPlanTest -Dplans.datasource.url=jdbc:mysql://localhost:3306/plans
+//       -Dplans.datasource.username=... -Dplans.datasource.password=...
+@SpringBootTest
+@TestPropertySource(properties = {
+		"spring.datasource.url=${plans.datasource.url:jdbc:h2:mem:plans;MODE=MySQL}",
+		"spring.datasource.username=${plans.datasource.username:sa}",
+		"spring.datasource.password=${plans.datasource.password:}",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"jwt.secret=404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970",
+		"api.path=/"})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanTest {
+
+	private static final int DOCTORS = 200;
+	private static final int PATIENTS = 2_000;
+	private static final int APPOINTMENTS = 20_000;
+	private static final LocalDateTime FIRST_SLOT = LocalDateTime.of(2030, 1, 7, 8, 0);
+
+	private static final List<Class<?>> REPOSITORIES = List.of(AppointmentRepository.class, DoctorRepository.class);
+
+	// Repository.method -> tables it may read in full
+	private static final Map<String, Set<String>> FULL_SCANS = Map.of(
+			// Counts every row, once at startup, to seed the dashboard counters
+			"AppointmentRepository.countGroupedByStatus", Set.of("appointments"),
+			// The whole directory, cached by DoctorListCache
+			"DoctorRepository.findAllWithAvailableTimes", Set.of("doctor"),
+			// A LIKE with a leading wildcard cannot seek a B-tree index
+			"DoctorRepository.findBySpecialityContainingIgnoreCase", Set.of("doctor"),
+			"DoctorRepository.findByNameAndSpeciality", Set.of("doctor"));
+
+	private static final Pattern H2_TABLE_SCAN = Pattern.compile("/\\* [\\w\"]+\\.\"?(\\w+)\"?\\.tableScan");
+	private static final Pattern SQL_TABLE_ALIAS = Pattern.compile(
+			"\\b(?:from|join|update)\\s+(\\w+)(?:\\s+(?!where\\b|set\\b|on\\b|join\\b)(\\w+))?", Pattern.CASE_INSENSITIVE);
+	private static final Pattern LIMITED = Pattern.compile("\\b(?:limit|fetch first)\\b", Pattern.CASE_INSENSITIVE);
+
+	@Autowired
+	private ApplicationContext context;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@BeforeAll
+	void seed() {
+		List<Object[]> doctors = new ArrayList<>();
+		for (int i = 1; i <= DOCTORS; i++) {
+			doctors.add(new Object[] {i, "Doctor Smith" + i, "Speciality" + i % 10, "doctor" + i + "@plans.test",
+				"secret1", "5550000000", new byte[0]});
+		}
+		jdbc.batchUpdate("INSERT INTO doctor (id, name, speciality, email, password, phone, available_slots)"
+				+ " VALUES (?, ?, ?, ?, ?, ?, ?)", doctors);
+
+		List<Object[]> patients = new ArrayList<>();
+		for (int i = 1; i <= PATIENTS; i++) {
+			patients.add(new Object[] {i, "Patient Jones" + i, "patient" + i + "@plans.test", "secret1",
+				"5551111111", "Street " + i});
+		}
+		jdbc.batchUpdate("INSERT INTO patient (id, name, email, passsword, phone, address) VALUES (?, ?, ?, ?, ?, ?)",
+				patients);
+
+		// One slot per doctor per hour, patients spread evenly over them
+		List<Object[]> appointments = new ArrayList<>();
+		for (int i = 1; i <= APPOINTMENTS; i++) {
+			appointments.add(new Object[] {i, i % PATIENTS + 1, i % DOCTORS + 1,
+				Timestamp.valueOf(FIRST_SLOT.plusHours(i / DOCTORS)), i % 3 == 0 ? "COMPLETED" : "PENDING"});
+		}
+		jdbc.batchUpdate("INSERT INTO appointments (id, patient_id, doctor_id, appointment_date, status)"
+				+ " VALUES (?, ?, ?, ?, ?)", appointments);
+
+		if (isH2()) {
+			jdbc.execute("ANALYZE");
+		} else {
+			jdbc.execute("ANALYZE TABLE doctor, patient, appointments");
+		}
+	}
+
+	static Stream<Arguments> queries() {
+		return REPOSITORIES.stream()
+				.flatMap(repository -> Arrays.stream(repository.getDeclaredMethods()))
+				.filter(method -> method.isAnnotationPresent(Query.class))
+				.sorted(Comparator.comparing(QueryPlanTest::name))
+				.map(method -> Arguments.of(name(method), method));
+	}
+
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("queries")
+	void queryAvoidsFullScans(String name, Method method) throws SQLException {
+		List<Statement> statements = capture(method);
+		assertFalse(statements.isEmpty(), name + " issued no SQL");
+
+		Set<String> allowed = FULL_SCANS.getOrDefault(name, Set.of());
+		for (Statement statement : statements) {
+			Set<String> scanned = fullScans(statement);
+			scanned.removeAll(allowed);
+			assertTrue(scanned.isEmpty(), name + " reads " + scanned + " in full:\n" + statement.sql + "\n"
+					+ explain(statement));
+		}
+	}
+
+	@Test
+	void fullScanListNamesExistingQueries() {
+		Set<String> names = new LinkedHashSet<>();
+		queries().forEach(arguments -> names.add((String) arguments.get()[0]));
+		for (String name : FULL_SCANS.keySet()) {
+			assertTrue(names.contains(name), "FULL_SCANS lists " + name + ", which is not a @Query method");
+		}
+	}
+
+	// Calls the repository method with sample arguments in a transaction that is
+	// rolled back, recording the statements sent on this thread.
+	private List<Statement> capture(Method method) {
+		Object repository = context.getBean(method.getDeclaringClass());
+		Object[] args = Arrays.stream(method.getParameters()).map(this::sampleArgument).toArray();
+		entityManagerFactory.getCache().evictAll();
+		entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+		return transaction.execute(status -> {
+			status.setRollbackOnly();
+			List<Statement> statements = RecordingDataSource.start();
+			try {
+				method.invoke(repository, args);
+			} catch (IllegalAccessException | InvocationTargetException e) {
+				throw new IllegalStateException(name(method) + " failed", e);
+			} finally {
+				RecordingDataSource.stop();
+			}
+			return statements;
+		});
+	}
+
+	private Object sampleArgument(Parameter parameter) {
+		if (parameter.getType() == Limit.class) {
+			return Limit.of(20);
+		}
+		Param param = parameter.getAnnotation(Param.class);
+		String name = param != null ? param.value() : parameter.getName();
+		switch (name) {
+			case "id":
+				return (long) APPOINTMENTS / 2;
+			case "doctorId":
+				return (long) DOCTORS / 2;
+			case "patientId":
+				return (long) PATIENTS / 2;
+			case "afterId":
+				return parameter.getDeclaringExecutable().getDeclaringClass() == DoctorRepository.class
+						? (long) DOCTORS / 2 : (long) APPOINTMENTS / 2;
+			case "ids":
+			case "doctorIds":
+				return List.of(1L, 2L, 3L);
+			case "start":
+				return FIRST_SLOT.plusDays(10);
+			case "end":
+			case "date":
+			case "afterDate":
+				return FIRST_SLOT.plusDays(11);
+			case "status":
+				return "PENDING";
+			case "name":
+			case "doctorName":
+				return "smith1";
+			case "patientName":
+				return "jones1";
+			case "speciality":
+				return "speciality1";
+			case "email":
+				return "doctor7@plans.test";
+			default:
+				throw new IllegalStateException("No sample value for parameter '" + name + "' of "
+						+ name((Method) parameter.getDeclaringExecutable()) + "; add one to sampleArgument");
+		}
+	}
+
+	private Set<String> fullScans(Statement statement) throws SQLException {
+		Set<String> tables = new LinkedHashSet<>();
+		if (isH2()) {
+			Matcher matcher = H2_TABLE_SCAN.matcher(explain(statement));
+			while (matcher.find()) {
+				tables.add(matcher.group(1).toLowerCase(Locale.ROOT));
+			}
+			return tables;
+		}
+		// MySQL: one row per table, named by its alias. ALL is a table scan and
+		// index a walk of a whole index, which only a row limit cuts short.
+		boolean limited = LIMITED.matcher(statement.sql).find();
+		Map<String, String> aliases = new HashMap<>();
+		Matcher matcher = SQL_TABLE_ALIAS.matcher(statement.sql);
+		while (matcher.find()) {
+			aliases.put(matcher.group(2) != null ? matcher.group(2) : matcher.group(1), matcher.group(1));
+		}
+		try (Connection connection = dataSource.getConnection();
+				PreparedStatement explain = prepareExplain(connection, statement);
+				ResultSet rows = explain.executeQuery()) {
+			while (rows.next()) {
+				String type = rows.getString("type");
+				if ("ALL".equals(type) || "index".equals(type) && !limited) {
+					String table = rows.getString("table");
+					tables.add(aliases.getOrDefault(table, table).toLowerCase(Locale.ROOT));
+				}
+			}
+		}
+		return tables;
+	}
+
+	private String explain(Statement statement) throws SQLException {
+		StringBuilder plan = new StringBuilder();
+		try (Connection connection = dataSource.getConnection();
+				PreparedStatement explain = prepareExplain(connection, statement);
+				ResultSet rows = explain.executeQuery()) {
+			int columns = rows.getMetaData().getColumnCount();
+			while (rows.next()) {
+				for (int i = 1; i <= columns; i++) {
+					plan.append(i > 1 ? " | " : "").append(rows.getString(i));
+				}
+				plan.append('\n');
+			}
+		}
+		return plan.toString();
+	}
+
+	private static PreparedStatement prepareExplain(Connection connection, Statement statement) throws SQLException {
+		PreparedStatement explain = connection.prepareStatement("EXPLAIN " + statement.sql);
+		for (Map.Entry<Integer, Object> parameter : statement.parameters.entrySet()) {
+			explain.setObject(parameter.getKey(), parameter.getValue());
+		}
+		return explain;
+	}
+
+	private boolean isH2() {
+		try (Connection connection = dataSource.getConnection()) {
+			return connection.getMetaData().getDatabaseProductName().equals("H2");
+		} catch (SQLException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static String name(Method method) {
+		return method.getDeclaringClass().getSimpleName() + "." + method.getName();
+	}
+
+	private static final class Statement {
+		private final String sql;
+		private final Map<Integer, Object> parameters = new TreeMap<>();
+
+		Statement(String sql) {
+			this.sql = sql;
+		}
+	}
+
+	@TestConfiguration
+	static class Recording {
+
+		@Bean
+		static BeanPostProcessor recordingDataSource() {
+			return new BeanPostProcessor() {
+				@Override
+				public Object postProcessAfterInitialization(Object bean, String beanName) {
+					return bean instanceof DataSource && beanName.equals("dataSource")
+							? new RecordingDataSource((DataSource) bean) : bean;
+				}
+			};
+		}
+	}
+
+	// Notes the SQL and bound parameters of prepared statements executed on a
+	// thread between start() and stop(); background jobs are not recorded.
+	static final class RecordingDataSource extends DelegatingDataSource {
+
+		private static final ThreadLocal<List<Statement>> RECORDED = new ThreadLocal<>();
+
+		RecordingDataSource(DataSource target) {
+			super(target);
+		}
+
+		static List<Statement> start() {
+			List<Statement> statements = new ArrayList<>();
+			RECORDED.set(statements);
+			return statements;
+		}
+
+		static void stop() {
+			RECORDED.remove();
+		}
+
+		@Override
+		public Connection getConnection() throws SQLException {
+			return recording(super.getConnection());
+		}
+
+		@Override
+		public Connection getConnection(String username, String password) throws SQLException {
+			return recording(super.getConnection(username, password));
+		}
+
+		private static Connection recording(Connection connection) {
+			return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+					new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+						Object result = invoke(connection, method, args);
+						if (method.getName().equals("prepareStatement") && args[0] instanceof String) {
+							return recording((PreparedStatement) result, (String) args[0]);
+						}
+						return result;
+					});
+		}
+
+		private static PreparedStatement recording(PreparedStatement prepared, String sql) {
+			Statement statement = new Statement(sql);
+			return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+					new Class<?>[] {PreparedStatement.class}, (proxy, method, args) -> {
+						String name = method.getName();
+						if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+							statement.parameters.put((Integer) args[0], name.equals("setNull") ? null : args[1]);
+						} else if (name.startsWith("execute") && (args == null || args.length == 0)) {
+							List<Statement> recorded = RECORDED.get();
+							if (recorded != null) {
+								recorded.add(statement);
+							}
+						}
+						return invoke(prepared, method, args);
+					});
+		}
+
+		private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+			try {
+				return method.invoke(target, args);
+			} catch (InvocationTargetException e) {
+				throw e.getCause();
+			}
+		}
+	}
+}
@@ -0,0 +1,252 @@
+package com.project.back_end.services;
+
+import com.project.back_end.config.Bulkhead;
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.Patient;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.PatientRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Hammers a handful of slots from many threads and checks that every slot is
+// booked exactly once, by one instance or by two instances sharing a database,
+// and that bookings for different slots are not serialized behind each other.
+// The repository stands in for MySQL, including the unique slot constraint.
+class BookingConcurrencyTest {
+
+	private static final int THREADS = 64;
+	private static final int REQUESTS = 20_000;
+	private static final int DOCTORS = 4;
+	private static final String[] SLOTS = {"09:00 - 10:00", "10:00 - 11:00", "11:00 - 12:00", "14:00 - 15:00"};
+
+	private final Map<String, Appointment> table = new ConcurrentHashMap<>();
+	private final AtomicInteger inserts = new AtomicInteger();
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final AtomicInteger maxInFlight = new AtomicInteger();
+	// How long an insert takes
+	private volatile long insertNanos = 200_000;
+
+	private AppointmentRepository appointmentRepo;
+	private DoctorRepository doctorRepo;
+	private final LocalDate day = LocalDate.now().plusDays(1);
+
+	@BeforeEach
+	void setUp() {
+		appointmentRepo = mock(AppointmentRepository.class);
+		doctorRepo = mock(DoctorRepository.class);
+		when(appointmentRepo.save(any(Appointment.class))).thenAnswer(inv -> {
+			Appointment appointment = inv.getArgument(0);
+			String key = appointment.getDoctor().getId() + "|" + appointment.getAppointmentDate();
+			maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+			try {
+				// A round trip widens the window for racing inserts
+				TimeUnit.NANOSECONDS.sleep(insertNanos);
+				if (table.putIfAbsent(key, appointment) != null) {
+					throw new DataIntegrityViolationException("Duplicate entry '" + key + "' for key 'appointments."
+							+ Appointment.SLOT_CONSTRAINT + "'");
+				}
+				inserts.incrementAndGet();
+				return appointment;
+			} finally {
+				inFlight.decrementAndGet();
+			}
+		});
+		when(appointmentRepo.findAppointmentDatesByDoctorIdBetween(anyLong(), any(), any())).thenAnswer(inv -> {
+			long doctorId = inv.getArgument(0);
+			List<LocalDateTime> dates = new ArrayList<>();
+			for (Appointment appointment : table.values()) {
+				if (appointment.getDoctor().getId() == doctorId) {
+					dates.add(appointment.getAppointmentDate());
+				}
+			}
+			return dates;
+		});
+		when(appointmentRepo.existsByDoctorIdAndAppointmentDate(anyLong(), any())).thenAnswer(
+				inv -> table.containsKey(inv.getArgument(0) + "|" + inv.getArgument(1)));
+		when(doctorRepo.findWithAvailableTimesById(anyLong())).thenAnswer(inv -> doctor(inv.getArgument(0)));
+	}
+
+	@Test
+	void singleInstanceBooksEachSlotOnce() throws Exception {
+		AppointmentService service = newInstance();
+		Map<Integer, AtomicInteger> outcomes = hammer(service, service);
+		assertBookedOnce(outcomes);
+		// Losing requests are refused before the insert, not by the database guard
+		assertEquals(DOCTORS * SLOTS.length, inserts.get());
+	}
+
+	// The throughput goal, checked without a clock: with inserts slow enough to
+	// overlap, bookings for different slots must reach the database together.
+	@Test
+	void differentSlotsAreBookedInParallel() throws Exception {
+		insertNanos = TimeUnit.MILLISECONDS.toNanos(20);
+		AppointmentService service = newInstance();
+		ExecutorService pool = Executors.newFixedThreadPool(DOCTORS * SLOTS.length);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<Integer>> futures = new ArrayList<>();
+		for (int doctor = 1; doctor <= DOCTORS; doctor++) {
+			for (String slot : SLOTS) {
+				Appointment appointment = booking(doctor, slot);
+				futures.add(pool.submit(() -> {
+					start.await();
+					return service.saveAppointment(appointment);
+				}));
+			}
+		}
+		start.countDown();
+		for (Future<Integer> future : futures) {
+			assertEquals(AppointmentService.BOOKED, future.get(60, TimeUnit.SECONDS));
+		}
+		pool.shutdown();
+		assertTrue(maxInFlight.get() > 1, "bookings for different slots ran one at a time");
+	}
+
+	@Test
+	void twoInstancesShareTheDatabaseGuard() throws Exception {
+		Map<Integer, AtomicInteger> outcomes = hammer(newInstance(), newInstance());
+		assertBookedOnce(outcomes);
+	}
+
+	@Test
+	void cancellationThroughAnotherInstanceFreesTheSlot() throws Exception {
+		AppointmentService first = newInstance();
+		AppointmentService second = newInstance(50);
+		assertEquals(AppointmentService.BOOKED, first.saveAppointment(booking(1, SLOTS[0])));
+		assertEquals(AppointmentService.SLOT_TAKEN, second.saveAppointment(booking(1, SLOTS[0])));
+		// Cancelled through the first instance; the second only learns of it from the database
+		table.clear();
+		Thread.sleep(100);
+		assertEquals(AppointmentService.BOOKED, second.saveAppointment(booking(1, SLOTS[0])));
+	}
+
+	@Test
+	void reschedulingOntoABookedSlotIsRejected() {
+		AppointmentService service = newInstance();
+		assertEquals(AppointmentService.BOOKED, service.saveAppointment(booking(1, SLOTS[0])));
+		Appointment existing = booking(1, SLOTS[1]);
+		assertEquals(AppointmentService.BOOKED, service.saveAppointment(existing));
+		when(appointmentRepo.findById(anyLong())).thenAnswer(inv -> Optional.of(booking(1, SLOTS[1])));
+		when(appointmentRepo.saveAndFlush(any(Appointment.class))).thenAnswer(inv -> {
+			Appointment moved = inv.getArgument(0);
+			table.remove(1 + "|" + existing.getAppointmentDate());
+			table.put(moved.getDoctor().getId() + "|" + moved.getAppointmentDate(), moved);
+			return moved;
+		});
+
+		assertEquals(AppointmentService.SLOT_TAKEN, service.updateAppointment(booking(1, SLOTS[0])));
+		assertEquals(2, table.size());
+		assertEquals(AppointmentService.BOOKED, service.updateAppointment(booking(1, SLOTS[2])));
+		// The freed slot can be booked again, the new one cannot
+		assertEquals(AppointmentService.BOOKED, service.saveAppointment(booking(1, SLOTS[1])));
+		assertEquals(AppointmentService.SLOT_TAKEN, service.saveAppointment(booking(1, SLOTS[2])));
+	}
+
+	private AppointmentService newInstance() {
+		return newInstance(5_000);
+	}
+
+	private AppointmentService newInstance(long bookingsTtlMillis) {
+		AvailabilityIndex index = new AvailabilityIndex(doctorRepo, appointmentRepo,
+				new Bulkhead("jdbc", THREADS, 1_000), bookingsTtlMillis, 10_000, 1_000);
+		return new AppointmentService(appointmentRepo, doctorRepo, mock(PatientRepository.class), index,
+				mock(DashboardCounters.class), mock(AppointmentOutbox.class), new NoOpTransactionManager(), 10_000);
+	}
+
+	private Map<Integer, AtomicInteger> hammer(AppointmentService first, AppointmentService second) throws Exception {
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+		Map<Integer, AtomicInteger> outcomes = new ConcurrentHashMap<>();
+		List<Future<?>> futures = new ArrayList<>();
+		for (int i = 0; i < REQUESTS; i++) {
+			int n = i;
+			futures.add(pool.submit(() -> {
+				start.await();
+				AppointmentService service = n % 2 == 0 ? first : second;
+				int outcome = service.saveAppointment(booking(n % DOCTORS + 1, SLOTS[(n / DOCTORS) % SLOTS.length]));
+				outcomes.computeIfAbsent(outcome, o -> new AtomicInteger()).incrementAndGet();
+				return null;
+			}));
+		}
+		start.countDown();
+		for (Future<?> future : futures) {
+			future.get(60, TimeUnit.SECONDS);
+		}
+		pool.shutdown();
+		return outcomes;
+	}
+
+	private void assertBookedOnce(Map<Integer, AtomicInteger> outcomes) {
+		int slots = DOCTORS * SLOTS.length;
+		assertEquals(slots, table.size());
+		assertEquals(slots, count(outcomes, AppointmentService.BOOKED));
+		assertEquals(REQUESTS - slots, count(outcomes, AppointmentService.SLOT_TAKEN));
+		assertEquals(0, count(outcomes, AppointmentService.BUSY));
+		assertEquals(0, count(outcomes, AppointmentService.FAILED));
+	}
+
+	private static int count(Map<Integer, AtomicInteger> outcomes, int outcome) {
+		AtomicInteger n = outcomes.get(outcome);
+		return n != null ? n.get() : 0;
+	}
+
+	private Appointment booking(long doctorId, String slot) {
+		Patient patient = new Patient("Patient", "patient@example.com", "secret", "5550000000", "Street 1");
+		LocalDateTime start = day.atTime(SlotTimes.startMinute(slot) / 60, 0);
+		return new Appointment(patient, doctor(doctorId), start, null);
+	}
+
+	private static Doctor doctor(long id) {
+		Doctor doctor = new Doctor("Doctor " + id, "General", "doctor" + id + "@example.com", "secret", "5551111111",
+				new ArrayList<>(List.of(SLOTS)));
+		doctor.setId(id);
+		return doctor;
+	}
+
+	// Commits are no-ops; the repository mock applies writes immediately.
+	private static final class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+
+		@Override
+		protected Object doGetTransaction() {
+			return new Object();
+		}
+
+		@Override
+		protected void doBegin(Object transaction, TransactionDefinition definition) {
+		}
+
+		@Override
+		protected void doCommit(DefaultTransactionStatus status) {
+		}
+
+		@Override
+		protected void doRollback(DefaultTransactionStatus status) {
+		}
+	}
+}
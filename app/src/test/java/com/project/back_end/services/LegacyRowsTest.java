@@ -0,0 +1,81 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.Login;
+import com.project.back_end.repo.DoctorRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Rows written before the entity constraints existed (here a phone number that
+// fails @Pattern) must keep working for writes that do not touch those columns:
+// availability edits and the password upgrade on a plaintext login.
+@SpringBootTest
+@ActiveProfiles("h2")
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:legacy-rows;MODE=MySQL")
+class LegacyRowsTest {
+
+	private static final String LEGACY_PHONE = "(555) 010-0199";
+
+	@Autowired
+	private DoctorService doctorService;
+
+	@Autowired
+	private Service service;
+
+	@Autowired
+	private TokenService tokenService;
+
+	@Autowired
+	private DoctorRepository doctorRepo;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Test
+	void doctorWithLegacyPhoneCanUpdateAvailability() {
+		long id = insertDoctor("legacy.slots@rows.test", "secret1");
+		String token = tokenService.generateToken("legacy.slots@rows.test", "doctor", id);
+		// Loads the doctor into the second-level cache before the write
+		assertEquals(List.of(), doctorRepo.findById(id).orElseThrow().getAvailableTimes());
+
+		assertEquals(2, doctorService.updateAvailability(token, List.of("09:00 - 10:00", "14:00 - 15:00")));
+
+		assertEquals(List.of("09:00 - 10:00", "14:00 - 15:00"),
+				doctorRepo.findById(id).orElseThrow().getAvailableTimes());
+		assertEquals(LEGACY_PHONE, jdbc.queryForObject("SELECT phone FROM doctor WHERE id = ?", String.class, id));
+	}
+
+	@Test
+	void legacyPlaintextLoginsSucceedAndUpgradeTheHash() {
+		long doctorId = insertDoctor("legacy.login@rows.test", "plain-secret");
+		// Cached before the login, so a stale entry would still show the plaintext
+		doctorRepo.findById(doctorId).orElseThrow();
+		assertTrue(doctorService.validateDoctor(new Login("legacy.login@rows.test", "plain-secret"))
+				.startsWith("token:"));
+		assertTrue(CredentialVerifier.isHashed(doctorRepo.findById(doctorId).orElseThrow().getPassword()));
+
+		jdbc.update("INSERT INTO patient (name, email, passsword, phone, address) VALUES (?, ?, ?, ?, ?)",
+				"Legacy Patient", "legacy.patient@rows.test", "plain-secret", LEGACY_PHONE, "Street 1");
+		assertTrue(service.validatePatientLogin(new Login("legacy.patient@rows.test", "plain-secret"))
+				.startsWith("token:"));
+		assertTrue(CredentialVerifier.isHashed(jdbc.queryForObject(
+				"SELECT passsword FROM patient WHERE email = ?", String.class, "legacy.patient@rows.test")));
+		// The upgraded hash verifies too
+		assertTrue(service.validatePatientLogin(new Login("legacy.patient@rows.test", "plain-secret"))
+				.startsWith("token:"));
+	}
+
+	private long insertDoctor(String email, String password) {
+		jdbc.update("INSERT INTO doctor (name, speciality, email, password, phone, available_slots)"
+				+ " VALUES (?, ?, ?, ?, ?, ?)", "Legacy Doctor", "General", email, password, LEGACY_PHONE, new byte[0]);
+		return jdbc.queryForObject("SELECT id FROM doctor WHERE email = ?", Long.class, email);
+	}
+}
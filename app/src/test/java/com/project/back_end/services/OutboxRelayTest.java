@@ -0,0 +1,119 @@
+package com.project.back_end.services;
+
+import com.project.back_end.models.Appointment;
+import com.project.back_end.models.Doctor;
+import com.project.back_end.models.OutboxEvent;
+import com.project.back_end.models.Patient;
+import com.project.back_end.repo.AppointmentRepository;
+import com.project.back_end.repo.DoctorRepository;
+import com.project.back_end.repo.OutboxEventRepository;
+import com.project.back_end.repo.PatientRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// A status change committed through Service must reach a registered outbox
+// listener, and be counted by AppointmentEventMetrics, once OutboxRelay has
+// run; one that changes nothing must not.
+@SpringBootTest
+@ActiveProfiles("h2")
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:outbox;MODE=MySQL")
+class OutboxRelayTest {
+
+	private static final String STATUS = "RELAYED";
+
+	@TestConfiguration
+	static class RecordingListenerConfig {
+
+		@Bean
+		RecordingListener recordingListener() {
+			return new RecordingListener();
+		}
+	}
+
+	static class RecordingListener implements OutboxListener {
+
+		private final List<OutboxEvent> events = new CopyOnWriteArrayList<>();
+
+		@Override
+		public void onEvents(List<OutboxEvent> batch) {
+			events.addAll(batch);
+		}
+	}
+
+	@Autowired
+	private Service service;
+
+	@Autowired
+	private OutboxRelay relay;
+
+	@Autowired
+	private RecordingListener listener;
+
+	@Autowired
+	private OutboxEventRepository outboxRepo;
+
+	@Autowired
+	private DoctorRepository doctorRepo;
+
+	@Autowired
+	private PatientRepository patientRepo;
+
+	@Autowired
+	private AppointmentRepository appointmentRepo;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Test
+	void committedStatusChangeReachesTheListener() throws InterruptedException {
+		Doctor doctor = doctorRepo.save(new Doctor("Doctor Relay", "General", "relay@outbox.test", "secret1",
+				"5551111111", new ArrayList<>(List.of("09:00 - 10:00"))));
+		Patient patient = patientRepo.save(
+				new Patient("Relay Patient", "relay.patient@outbox.test", "secret1", "5550000000", "Street 1"));
+		Appointment appointment = appointmentRepo.save(
+				new Appointment(patient, doctor, LocalDate.now().plusDays(1).atTime(9, 0), null));
+
+		assertTrue(service.updateAppointmentStatus(appointment.getId(), STATUS));
+		// No such appointment, so nothing changes and no event is recorded
+		service.updateAppointmentStatus(-1L, "IGNORED");
+
+		// The scheduled relay may take the batch first, so wait for either
+		assertTrue(eventually(() -> {
+			relay.relay();
+			return !listener.events.isEmpty();
+		}), "status change was not delivered to the listener");
+		assertTrue(eventually(() -> outboxRepo.count() == 0), "delivered events were not removed");
+		assertEquals(1, listener.events.size());
+		OutboxEvent event = listener.events.get(0);
+		assertEquals(AppointmentOutbox.STATUS_CHANGED, event.getType());
+		assertEquals((long) appointment.getId(), event.getAggregateId());
+		assertTrue(event.getPayload().contains(STATUS), event.getPayload());
+		assertTrue(eventually(() -> meterRegistry.counter("appointment.events", "type",
+				AppointmentOutbox.STATUS_CHANGED).count() == 1), "status change was not counted");
+	}
+
+	private static boolean eventually(BooleanSupplier condition) throws InterruptedException {
+		for (int attempt = 0; attempt < 50; attempt++) {
+			if (condition.getAsBoolean()) {
+				return true;
+			}
+			Thread.sleep(100);
+		}
+		return false;
+	}
+}